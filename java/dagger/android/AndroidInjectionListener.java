@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.android;
+
+import dagger.internal.Beta;
+
+/**
+ * Receives the timing of each injection performed by a {@link DispatchingAndroidInjector}, for
+ * example to trace how much of an {@link android.app.Activity}'s startup is spent on injection. To
+ * install a listener, contribute it to a set binding of {@code AndroidInjectionListener} in the
+ * component that installs {@link AndroidInjectionModule}:
+ *
+ * <pre><code>
+ *   {@literal @}Binds {@literal @}IntoSet
+ *   abstract AndroidInjectionListener tracingListener(TracingInjectionListener listener);
+ * </code></pre>
+ *
+ * <p>When no listener is installed, injection is not timed at all.
+ *
+ * <p>Listeners are called on the thread that performed the injection, so they should return
+ * quickly and must not throw.
+ */
+@Beta
+public interface AndroidInjectionListener {
+  /**
+   * Called after an instance of {@code injectedClass} has been injected.
+   *
+   * @param lookupNanos the time spent finding the {@link AndroidInjector.Factory} for the class
+   * @param injectorCreationNanos the time spent creating the {@link AndroidInjector}, typically a
+   *     subcomponent, with {@link AndroidInjector.Factory#create}
+   * @param membersInjectionNanos the time spent in {@link AndroidInjector#inject}
+   */
+  void onInjected(
+      Class<?> injectedClass,
+      long lookupNanos,
+      long injectorCreationNanos,
+      long membersInjectionNanos);
+}
@@ -20,6 +20,7 @@ import dagger.Module;
 import dagger.internal.Beta;
 import dagger.multibindings.Multibinds;
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Contains bindings to ensure the usability of {@code dagger.android} framework classes. This
@@ -35,5 +36,8 @@ public abstract class AndroidInjectionModule {
   @Multibinds
   abstract Map<String, AndroidInjector.Factory<?>> stringKeyedInjectorFactories();
 
+  @Multibinds
+  abstract Set<AndroidInjectionListener> injectionListeners();
+
   private AndroidInjectionModule() {}
 }
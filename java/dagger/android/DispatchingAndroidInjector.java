@@ -16,18 +16,17 @@
 
 package dagger.android;
 
-import static dagger.internal.DaggerCollections.newLinkedHashMapWithExpectedSize;
 import static dagger.internal.Preconditions.checkNotNull;
 
 import android.app.Activity;
 import android.app.Fragment;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
+import dagger.Lazy;
 import dagger.internal.Beta;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
+import java.util.Set;
 import javax.inject.Inject;
 import javax.inject.Provider;
 
@@ -49,43 +48,50 @@ public final class DispatchingAndroidInjector<T> implements AndroidInjector<T> {
       "No injector factory bound for Class<%1$s>. Injector factories were bound for supertypes "
           + "of %1$s: %2$s. Did you mean to bind an injector factory for the subtype?";
 
-  private final Map<String, Provider<AndroidInjector.Factory<?>>> injectorFactories;
+  /**
+   * The injector factories, kept in separate maps so that the common case, a class key, is looked
+   * up by the instance's class without computing its name.
+   *
+   * <p>The maps are requested lazily so that injecting a {@link DaggerApplication} doesn't build
+   * the maps, and the providers in them, for every type of Android component up front; each map is
+   * only built when the first instance of its type is injected.
+   *
+   * <p>An SPI plugin verifies the logical uniqueness of the keysets of these two maps so we're
+   * assured there's no overlap.
+   */
+  private final Lazy<Map<Class<?>, Provider<AndroidInjector.Factory<?>>>>
+      injectorFactoriesWithClassKeys;
+
+  private final Lazy<Map<String, Provider<AndroidInjector.Factory<?>>>>
+      injectorFactoriesWithStringKeys;
+
+  /** The listeners to notify of each injection's timing. If empty, injections are not timed. */
+  private final Set<AndroidInjectionListener> injectionListeners;
 
   @Inject
   DispatchingAndroidInjector(
-      Map<Class<?>, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithClassKeys,
-      Map<String, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithStringKeys) {
-    this.injectorFactories = merge(injectorFactoriesWithClassKeys, injectorFactoriesWithStringKeys);
+      Lazy<Map<Class<?>, Provider<AndroidInjector.Factory<?>>>> injectorFactoriesWithClassKeys,
+      Lazy<Map<String, Provider<AndroidInjector.Factory<?>>>> injectorFactoriesWithStringKeys,
+      Set<AndroidInjectionListener> injectionListeners) {
+    this.injectorFactoriesWithClassKeys = injectorFactoriesWithClassKeys;
+    this.injectorFactoriesWithStringKeys = injectorFactoriesWithStringKeys;
+    this.injectionListeners = injectionListeners;
   }
 
   /**
-   * Merges the two maps into one by transforming the values of the {@code classKeyedMap} with
-   * {@link Class#getName()}.
-   *
-   * <p>An SPI plugin verifies the logical uniqueness of the keysets of these two maps so we're
-   * assured there's no overlap.
-   *
-   * <p>Ideally we could achieve this with a generic {@code @Provides} method, but we'd need to have
-   * <i>N</i> modules that each extend one base module.
+   * Returns the provider of the injector factory bound for {@code clazz}, or null if there is none.
    */
-  private static <C, V> Map<String, Provider<AndroidInjector.Factory<?>>> merge(
-      Map<Class<? extends C>, V> classKeyedMap, Map<String, V> stringKeyedMap) {
-    if (classKeyedMap.isEmpty()) {
-      @SuppressWarnings({"unchecked", "rawtypes"})
-      Map<String, Provider<AndroidInjector.Factory<?>>> safeCast = (Map) stringKeyedMap;
-      return safeCast;
-    }
-
-    Map<String, V> merged =
-        newLinkedHashMapWithExpectedSize(classKeyedMap.size() + stringKeyedMap.size());
-    merged.putAll(stringKeyedMap);
-    for (Entry<Class<? extends C>, V> entry : classKeyedMap.entrySet()) {
-      merged.put(entry.getKey().getName(), entry.getValue());
+  private Provider<AndroidInjector.Factory<?>> injectorFactoryFor(Class<?> clazz) {
+    Provider<AndroidInjector.Factory<?>> factoryProvider =
+        injectorFactoriesWithClassKeys.get().get(clazz);
+    if (factoryProvider == null) {
+      Map<String, Provider<AndroidInjector.Factory<?>>> stringKeyedFactories =
+          injectorFactoriesWithStringKeys.get();
+      if (!stringKeyedFactories.isEmpty()) {
+        factoryProvider = stringKeyedFactories.get(clazz.getName());
+      }
     }
-
-    @SuppressWarnings({"unchecked", "rawtypes"})
-    Map<String, Provider<AndroidInjector.Factory<?>>> safeCast = (Map) merged;
-    return Collections.unmodifiableMap(safeCast);
+    return factoryProvider;
   }
 
   /**
@@ -97,21 +103,24 @@ public final class DispatchingAndroidInjector<T> implements AndroidInjector<T> {
    */
   @CanIgnoreReturnValue
   public boolean maybeInject(T instance) {
-    Provider<AndroidInjector.Factory<?>> factoryProvider =
-        injectorFactories.get(instance.getClass().getName());
+    boolean timed = !injectionListeners.isEmpty();
+    long startNanos = timed ? System.nanoTime() : 0;
+    Provider<AndroidInjector.Factory<?>> factoryProvider = injectorFactoryFor(instance.getClass());
     if (factoryProvider == null) {
       return false;
     }
+    long lookedUpNanos = timed ? System.nanoTime() : 0;
 
     @SuppressWarnings("unchecked")
     AndroidInjector.Factory<T> factory = (AndroidInjector.Factory<T>) factoryProvider.get();
+    long createdNanos;
     try {
       AndroidInjector<T> injector =
           checkNotNull(
               factory.create(instance), "%s.create(I) should not return null.", factory.getClass());
+      createdNanos = timed ? System.nanoTime() : 0;
 
       injector.inject(instance);
-      return true;
     } catch (ClassCastException e) {
       throw new InvalidInjectorBindingException(
           String.format(
@@ -119,6 +128,18 @@ public final class DispatchingAndroidInjector<T> implements AndroidInjector<T> {
               factory.getClass().getCanonicalName(), instance.getClass().getCanonicalName()),
           e);
     }
+
+    if (timed) {
+      long injectedNanos = System.nanoTime();
+      for (AndroidInjectionListener listener : injectionListeners) {
+        listener.onInjected(
+            instance.getClass(),
+            lookedUpNanos - startNanos,
+            createdNanos - lookedUpNanos,
+            injectedNanos - createdNanos);
+      }
+    }
+    return true;
   }
 
   /**
@@ -153,7 +174,8 @@ public final class DispatchingAndroidInjector<T> implements AndroidInjector<T> {
   private String errorMessageSuggestions(T instance) {
     List<String> suggestions = new ArrayList<>();
     for (Class<?> clazz = instance.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
-      if (injectorFactories.containsKey(clazz.getCanonicalName())) {
+      if (injectorFactoriesWithClassKeys.get().containsKey(clazz)
+          || injectorFactoriesWithStringKeys.get().containsKey(clazz.getCanonicalName())) {
         suggestions.add(clazz.getCanonicalName());
       }
     }
@@ -52,6 +52,13 @@ public final class ProxyServerCallHandler<RequestT, ResponseT>
   private final MethodDescriptor<RequestT, ResponseT> delegateMethodDescriptor;
   private final ServiceDefinitionFactory delegateServiceDefinitionFactory;
 
+  /**
+   * The delegate method resolved from the most recent service definition. Factories that return
+   * the same service definition for every call, such as the one used by the generated {@code
+   * UnscopedGrpcServiceModule}, therefore resolve the method only once.
+   */
+  private volatile ResolvedMethod<RequestT, ResponseT> resolvedMethod;
+
   /**
    * Returns a proxy method definition for {@code methodDescriptor}.
    *
@@ -88,16 +95,41 @@ public final class ProxyServerCallHandler<RequestT, ResponseT>
     return new ServerCallListenerAdapter(delegateListener);
   }
 
+  /**
+   * Returns the delegate's definition of the method, looking it up by name in the service
+   * definition's index only if the service definition differs from the previous call's.
+   */
   @SuppressWarnings("unchecked") // Method definition is the correct type.
   private ServerMethodDefinition<RequestT, ResponseT> getMethodDefinition(Metadata headers) {
+    ServerServiceDefinition serviceDefinition =
+        delegateServiceDefinitionFactory.getServiceDefinition(headers);
+    ResolvedMethod<RequestT, ResponseT> resolved = resolvedMethod;
+    if (resolved != null && resolved.serviceDefinition == serviceDefinition) {
+      return resolved.methodDefinition;
+    }
     String fullMethodName = delegateMethodDescriptor.getFullMethodName();
-    for (ServerMethodDefinition<?, ?> methodDefinition :
-        delegateServiceDefinitionFactory.getServiceDefinition(headers).getMethods()) {
-      if (methodDefinition.getMethodDescriptor().getFullMethodName().equals(fullMethodName)) {
-        return (ServerMethodDefinition<RequestT, ResponseT>) methodDefinition;
-      }
+    ServerMethodDefinition<?, ?> methodDefinition = serviceDefinition.getMethod(fullMethodName);
+    if (methodDefinition == null) {
+      throw new IllegalStateException("Could not find " + fullMethodName);
+    }
+    resolved =
+        new ResolvedMethod<>(
+            serviceDefinition, (ServerMethodDefinition<RequestT, ResponseT>) methodDefinition);
+    resolvedMethod = resolved;
+    return resolved.methodDefinition;
+  }
+
+  /** A delegate method definition and the service definition it was found in. */
+  private static final class ResolvedMethod<RequestT, ResponseT> {
+    final ServerServiceDefinition serviceDefinition;
+    final ServerMethodDefinition<RequestT, ResponseT> methodDefinition;
+
+    ResolvedMethod(
+        ServerServiceDefinition serviceDefinition,
+        ServerMethodDefinition<RequestT, ResponseT> methodDefinition) {
+      this.serviceDefinition = serviceDefinition;
+      this.methodDefinition = methodDefinition;
     }
-    throw new IllegalStateException("Could not find " + fullMethodName);
   }
 
   private static final Marshaller<InputStream> IDENTITY_MARSHALLER =
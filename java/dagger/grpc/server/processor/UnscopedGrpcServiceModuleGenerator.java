@@ -25,6 +25,7 @@ import static javax.lang.model.element.Modifier.FINAL;
 import static javax.lang.model.element.Modifier.PRIVATE;
 import static javax.lang.model.element.Modifier.PUBLIC;
 import static javax.lang.model.element.Modifier.STATIC;
+import static javax.lang.model.element.Modifier.VOLATILE;
 
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.MethodSpec;
@@ -55,7 +56,11 @@ final class UnscopedGrpcServiceModuleGenerator extends SourceGenerator {
                 "Install this module in the {@link $T @Singleton} server component\n",
                 JavaxInject.singleton().type)
             .addJavadoc(
-                "if it implements {@link $T}.\n", grpcServiceModel.serviceDefinitionTypeName);
+                "if it implements {@link $T}.\n", grpcServiceModel.serviceDefinitionTypeName)
+            .addJavadoc(
+                "\n<p>The service definition is built for the first call and reused for all\n")
+            .addJavadoc(
+                "later calls, so they share one service implementation and interceptor chain.\n");
     grpcServiceModel.generatedAnnotation().ifPresent(unscopedServiceModule::addAnnotation);
     return unscopedServiceModule
         .addAnnotation(
@@ -68,14 +73,18 @@ final class UnscopedGrpcServiceModuleGenerator extends SourceGenerator {
   }
   
   /**
-   * Returns the class that implements the component factory type by returning the singleton
-   * component itself.
+   * Returns the class that implements the component factory type by returning itself, and
+   * implements the component type by building the singleton component's service definition once
+   * and returning it for every call.
    */
   private TypeSpec unscopedComponentFactory(String simpleName) {
+    String serviceDefinitionMethodName = grpcServiceModel.subcomponentServiceDefinitionMethodName();
     return TypeSpec.classBuilder(simpleName)
         .addModifiers(STATIC, FINAL)
         .addSuperinterface(grpcServiceModel.serviceDefinitionTypeFactoryName)
+        .addSuperinterface(grpcServiceModel.serviceDefinitionTypeName)
         .addField(grpcServiceModel.serviceDefinitionTypeName, "component", PRIVATE, FINAL)
+        .addField(IoGrpc.SERVER_SERVICE_DEFINITION, "serviceDefinition", PRIVATE, VOLATILE)
         .addMethod(
             MethodSpec.constructorBuilder()
                 .addAnnotation(JavaxInject.inject())
@@ -88,7 +97,21 @@ final class UnscopedGrpcServiceModuleGenerator extends SourceGenerator {
                 .addModifiers(PUBLIC)
                 .returns(grpcServiceModel.serviceDefinitionTypeName)
                 .addParameter(Dagger.GrpcServer.GRPC_CALL_METADATA_MODULE, "grpcCallMetadataModule")
-                .addStatement("return component")
+                .addStatement("return this")
+                .build())
+        .addMethod(
+            MethodSpec.methodBuilder(serviceDefinitionMethodName)
+                .addAnnotation(Override.class)
+                .addAnnotation(grpcServiceModel.forGrpcService())
+                .addModifiers(PUBLIC)
+                .returns(IoGrpc.SERVER_SERVICE_DEFINITION)
+                .addStatement("$T result = serviceDefinition", IoGrpc.SERVER_SERVICE_DEFINITION)
+                .beginControlFlow("if (result == null)")
+                // Racing calls may each build a definition, but they are equivalent.
+                .addStatement("result = component.$N()", serviceDefinitionMethodName)
+                .addStatement("serviceDefinition = result")
+                .endControlFlow()
+                .addStatement("return result")
                 .build())
         .build();
   }
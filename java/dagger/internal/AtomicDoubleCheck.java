@@ -0,0 +1,189 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import dagger.Lazy;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+import javax.inject.Provider;
+
+/**
+ * A {@link Lazy} and {@link Provider} implementation that memoizes the value returned from a
+ * delegate, like {@link DoubleCheck}, but without ever acquiring a monitor.
+ *
+ * <p>The first caller claims the initialization with a compare-and-set and runs the delegate.
+ * Callers from other threads that arrive while the delegate is running are parked until the
+ * value has been published, instead of convoying on an (inflated) monitor. Once initialized,
+ * {@link #get()} is a single volatile read and type check, just as in {@link DoubleCheck}.
+ *
+ * <p>Reentrant calls from the initializing thread behave as they do with {@link DoubleCheck}:
+ * the delegate is invoked again and {@link DoubleCheck#reentrantCheck} verifies that both
+ * invocations returned the same instance.
+ */
+@GwtIncompatible
+public final class AtomicDoubleCheck<T> implements Provider<T>, Lazy<T> {
+  /** The state of an instance that hasn't been claimed by any thread. */
+  private static final Initialization UNINITIALIZED = new Initialization(null);
+
+  @SuppressWarnings("rawtypes") // field updaters can't be created for generic types
+  private static final AtomicReferenceFieldUpdater<AtomicDoubleCheck, Object> INSTANCE_UPDATER =
+      AtomicReferenceFieldUpdater.newUpdater(AtomicDoubleCheck.class, Object.class, "instance");
+
+  private volatile Provider<T> provider;
+
+  /**
+   * Either the memoized value, {@link #UNINITIALIZED}, or the {@link Initialization} of the thread
+   * that is currently running the delegate.
+   */
+  private volatile Object instance = UNINITIALIZED;
+
+  private AtomicDoubleCheck(Provider<T> provider) {
+    assert provider != null;
+    this.provider = provider;
+  }
+
+  @SuppressWarnings("unchecked") // cast only happens when result comes from the provider
+  @Override
+  public T get() {
+    Object result = instance;
+    if (result instanceof Initialization) {
+      result = initialize((Initialization) result);
+    }
+    return (T) result;
+  }
+
+  private Object initialize(Initialization state) {
+    Thread currentThread = Thread.currentThread();
+    while (true) {
+      if (state == UNINITIALIZED) {
+        Initialization claim = new Initialization(currentThread);
+        if (INSTANCE_UPDATER.compareAndSet(this, UNINITIALIZED, claim)) {
+          return runDelegate(claim);
+        }
+      } else if (state.owner == currentThread) {
+        // The delegate has (transitively) requested its own binding.
+        return runReentrantDelegate();
+      } else {
+        state.await();
+      }
+
+      Object current = instance;
+      if (!(current instanceof Initialization)) {
+        return current;
+      }
+      state = (Initialization) current;
+    }
+  }
+
+  private Object runDelegate(Initialization claim) {
+    boolean published = false;
+    try {
+      Object result = provider.get();
+      Object current = instance;
+      if (current == claim) {
+        instance = result;
+      } else {
+        // A reentrant call already published a value.
+        result = DoubleCheck.reentrantCheck(current, result);
+      }
+      published = true;
+      /* Null out the reference to the provider. We are never going to need it again, so we
+       * can make it eligible for GC. */
+      provider = null;
+      return result;
+    } finally {
+      if (!published) {
+        // Let the next caller retry, just as a DoubleCheck would after an exception.
+        INSTANCE_UPDATER.compareAndSet(this, claim, UNINITIALIZED);
+      }
+      claim.release();
+    }
+  }
+
+  private Object runReentrantDelegate() {
+    Object result = provider.get();
+    Object current = instance;
+    if (current instanceof Initialization) {
+      instance = result;
+      return result;
+    }
+    return DoubleCheck.reentrantCheck(current, result);
+  }
+
+  /** A claim on the initialization of an {@link AtomicDoubleCheck} by a single thread. */
+  private static final class Initialization {
+    final Thread owner;
+    private final ConcurrentLinkedQueue<Thread> waiters = new ConcurrentLinkedQueue<Thread>();
+    private volatile boolean released;
+
+    Initialization(Thread owner) {
+      this.owner = owner;
+    }
+
+    /** Parks the current thread until the owner has {@linkplain #release() released} the claim. */
+    void await() {
+      Thread currentThread = Thread.currentThread();
+      waiters.add(currentThread);
+      boolean interrupted = false;
+      while (!released) {
+        LockSupport.park(this);
+        // Clear the interrupt so that park() blocks again; it is restored below.
+        interrupted |= Thread.interrupted();
+      }
+      waiters.remove(currentThread);
+      if (interrupted) {
+        currentThread.interrupt();
+      }
+    }
+
+    void release() {
+      released = true;
+      for (Thread waiter : waiters) {
+        LockSupport.unpark(waiter);
+      }
+    }
+  }
+
+  /** Returns a {@link Provider} that caches the value from the given delegate provider. */
+  // This method is declared this way instead of "<T> Provider<T> provider(Provider<T> delegate)"
+  // to work around an Eclipse type inference bug: https://github.com/google/dagger/issues/949.
+  public static <P extends Provider<T>, T> Provider<T> provider(P delegate) {
+    checkNotNull(delegate);
+    if (delegate instanceof AtomicDoubleCheck || delegate instanceof DoubleCheck) {
+      /* This should be a rare case, but if we have a scoped @Binds that delegates to a scoped
+       * binding, we shouldn't cache the value again. */
+      return delegate;
+    }
+    return new AtomicDoubleCheck<T>(delegate);
+  }
+
+  /** Returns a {@link Lazy} that caches the value from the given provider. */
+  // This method is declared this way instead of "<T> Lazy<T> lazy(Provider<T> delegate)"
+  // to work around an Eclipse type inference bug: https://github.com/google/dagger/issues/949.
+  public static <P extends Provider<T>, T> Lazy<T> lazy(P provider) {
+    if (provider instanceof Lazy) {
+      @SuppressWarnings("unchecked")
+      final Lazy<T> lazy = (Lazy<T>) provider;
+      // Avoids memoizing a value that is already memoized.
+      return lazy;
+    }
+    return new AtomicDoubleCheck<T>(checkNotNull(provider));
+  }
+}
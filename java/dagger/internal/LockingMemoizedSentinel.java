@@ -0,0 +1,45 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The initial value of a field that memoizes a scoped binding in generated code, which also serves
+ * as the lock that guards the binding's initialization.
+ *
+ * <p>This is used instead of {@link MemoizedSentinel} and a {@code synchronized} block when
+ * monitor-free scoping is enabled. Threads that wait for another thread to finish the
+ * initialization are parked by the {@link ReentrantLock} rather than blocked on a monitor, so a
+ * virtual thread that waits for (or runs) a slow initialization does not pin its carrier thread.
+ */
+@GwtIncompatible
+public final class LockingMemoizedSentinel extends ReentrantLock {
+  private static final long serialVersionUID = 1L;
+
+  /**
+   * Checks to see if creating the new instance has resulted in a recursive call, as in {@link
+   * DoubleCheck#reentrantCheck(Object, Object)}, treating {@link LockingMemoizedSentinel} as an
+   * uninitialized value.
+   */
+  public static Object reentrantCheck(Object currentInstance, Object newInstance) {
+    if (currentInstance instanceof LockingMemoizedSentinel) {
+      return newInstance;
+    }
+    return DoubleCheck.reentrantCheck(currentInstance, newInstance);
+  }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static dagger.internal.Preconditions.checkNotNull;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Initializes a set of bindings with known dependencies among them on an {@link Executor},
+ * starting each binding as soon as all of the bindings it depends on have been initialized.
+ *
+ * <p>This is used to implement the {@code warmUp(Executor)} methods that components may declare
+ * when scoped binding warm-up is enabled. Initializing a binding just calls its scoped provider, so
+ * the usual {@link DoubleCheck} semantics apply to any concurrent requests for the same bindings.
+ */
+@GwtIncompatible
+public final class ParallelInitialization {
+  /** Initializes a single binding. */
+  public interface Initializer {
+    /** Initializes the binding at {@code index} and returns its instance. */
+    Object initialize(int index);
+  }
+
+  /**
+   * Initializes every binding, blocking until all of them have been initialized.
+   *
+   * @param dependencies for each binding, the indices of the bindings that must be initialized
+   *     before it
+   * @throws RuntimeException or {@link Error} if any binding failed to initialize, in which case
+   *     no further bindings are initialized
+   */
+  public static void run(Executor executor, int[][] dependencies, Initializer initializer)
+      throws InterruptedException {
+    new ParallelInitialization(checkNotNull(executor), dependencies, checkNotNull(initializer))
+        .run();
+  }
+
+  private final Executor executor;
+  private final Initializer initializer;
+  private final int[][] dependents;
+  private final AtomicIntegerArray pendingDependencies;
+  private final CountDownLatch remaining;
+  private final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+
+  private ParallelInitialization(
+      Executor executor, int[][] dependencies, Initializer initializer) {
+    this.executor = executor;
+    this.initializer = initializer;
+    this.pendingDependencies = new AtomicIntegerArray(dependencies.length);
+    this.remaining = new CountDownLatch(dependencies.length);
+
+    int[] dependentCounts = new int[dependencies.length];
+    for (int[] bindingDependencies : dependencies) {
+      for (int dependency : bindingDependencies) {
+        dependentCounts[dependency]++;
+      }
+    }
+    this.dependents = new int[dependencies.length][];
+    for (int i = 0; i < dependencies.length; i++) {
+      dependents[i] = new int[dependentCounts[i]];
+      pendingDependencies.set(i, dependencies[i].length);
+    }
+    for (int i = 0; i < dependencies.length; i++) {
+      for (int dependency : dependencies[i]) {
+        dependents[dependency][--dependentCounts[dependency]] = i;
+      }
+    }
+  }
+
+  private void run() throws InterruptedException {
+    for (int i = 0; i < dependents.length; i++) {
+      if (pendingDependencies.get(i) == 0) {
+        submit(i);
+      }
+    }
+    remaining.await();
+
+    Throwable throwable = failure.get();
+    if (throwable instanceof RuntimeException) {
+      throw (RuntimeException) throwable;
+    } else if (throwable instanceof Error) {
+      throw (Error) throwable;
+    } else if (throwable != null) {
+      throw new RuntimeException(throwable);
+    }
+  }
+
+  private void submit(final int index) {
+    Runnable task =
+        new Runnable() {
+          @Override
+          public void run() {
+            initialize(index);
+          }
+        };
+    try {
+      executor.execute(task);
+    } catch (RejectedExecutionException e) {
+      // Don't leave the caller waiting for a binding that will never be initialized.
+      task.run();
+    }
+  }
+
+  private void initialize(int index) {
+    try {
+      if (failure.get() == null) {
+        initializer.initialize(index);
+      }
+    } catch (Throwable t) {
+      failure.compareAndSet(null, t);
+    } finally {
+      for (int dependent : dependents[index]) {
+        if (pendingDependencies.decrementAndGet(dependent) == 0) {
+          submit(dependent);
+        }
+      }
+      remaining.countDown();
+    }
+  }
+}
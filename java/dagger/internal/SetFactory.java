@@ -21,11 +21,16 @@ import static dagger.internal.DaggerCollections.newHashSetWithExpectedSize;
 import static dagger.internal.DaggerCollections.presizedList;
 import static dagger.internal.Preconditions.checkNotNull;
 import static java.util.Collections.emptySet;
+import static java.util.Collections.singleton;
 import static java.util.Collections.unmodifiableSet;
 
+import java.util.AbstractSet;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Iterator;
 import java.util.List;
+import java.util.NoSuchElementException;
 import java.util.Set;
 import javax.inject.Provider;
 
@@ -35,6 +40,13 @@ import javax.inject.Provider;
  * whose elements are populated by subsequent calls to their {@link Provider#get} methods.
  */
 public final class SetFactory<T> implements Factory<Set<T>> {
+  /**
+   * The largest number of elements for which {@link #get()} returns an array-backed set. Up to this
+   * size a linear scan for duplicates is cheaper than hashing each element into a {@link
+   * java.util.HashSet}.
+   */
+  private static final int MAX_ARRAY_SET_SIZE = 16;
+
   private static final Factory<Set<Object>> EMPTY_FACTORY = InstanceFactory.create(emptySet());
 
   @SuppressWarnings({"unchecked", "rawtypes"}) // safe covariant cast
@@ -108,6 +120,10 @@ public final class SetFactory<T> implements Factory<Set<T>> {
    */
   @Override
   public Set<T> get() {
+    if (collectionProviders.isEmpty()) {
+      return getIndividualValues();
+    }
+
     int size = individualProviders.size();
     // Profiling revealed that this method was a CPU-consuming hotspot in some applications, so
     // these loops were changed to use c-style for.  Versus enhanced for-each loops, C-style for is
@@ -121,6 +137,22 @@ public final class SetFactory<T> implements Factory<Set<T>> {
       providedCollections.add(providedCollection);
     }
 
+    if (size == 0) {
+      return emptySet();
+    }
+    if (size <= MAX_ARRAY_SET_SIZE) {
+      ArraySet<T> providedValues = new ArraySet<T>(size);
+      for (int i = 0, c = individualProviders.size(); i < c; i++) {
+        providedValues.addIfAbsent(checkNotNull(individualProviders.get(i).get()));
+      }
+      for (int i = 0, c = providedCollections.size(); i < c; i++) {
+        for (T element : providedCollections.get(i)) {
+          providedValues.addIfAbsent(checkNotNull(element));
+        }
+      }
+      return providedValues;
+    }
+
     Set<T> providedValues = newHashSetWithExpectedSize(size);
     for (int i = 0, c = individualProviders.size(); i < c; i++) {
       providedValues.add(checkNotNull(individualProviders.get(i).get()));
@@ -133,4 +165,97 @@ public final class SetFactory<T> implements Factory<Set<T>> {
 
     return unmodifiableSet(providedValues);
   }
+
+  /**
+   * Returns the set of values given by the individual providers, for factories without any
+   * collection providers. The size is known up front, so no intermediate collections are allocated.
+   */
+  private Set<T> getIndividualValues() {
+    int size = individualProviders.size();
+    switch (size) {
+      case 0:
+        return emptySet();
+      case 1:
+        return singleton(checkNotNull(individualProviders.get(0).get()));
+      default:
+        if (size <= MAX_ARRAY_SET_SIZE) {
+          ArraySet<T> providedValues = new ArraySet<T>(size);
+          for (int i = 0; i < size; i++) {
+            providedValues.addIfAbsent(checkNotNull(individualProviders.get(i).get()));
+          }
+          return providedValues;
+        }
+        Set<T> providedValues = newHashSetWithExpectedSize(size);
+        for (int i = 0; i < size; i++) {
+          providedValues.add(checkNotNull(individualProviders.get(i).get()));
+        }
+        return unmodifiableSet(providedValues);
+    }
+  }
+
+  /**
+   * An unmodifiable {@link Set} backed by an array, for sets small enough that scanning the array
+   * is cheaper than hashing. Elements are only added by {@link SetFactory#get()} before the set is
+   * returned.
+   */
+  private static final class ArraySet<T> extends AbstractSet<T> {
+    private Object[] elements;
+    private int size;
+
+    ArraySet(int expectedSize) {
+      this.elements = new Object[expectedSize];
+    }
+
+    void addIfAbsent(T element) {
+      if (contains(element)) {
+        return;
+      }
+      if (size == elements.length) {
+        // Only possible if a provided collection grew after its size was read.
+        elements = Arrays.copyOf(elements, size * 2);
+      }
+      elements[size++] = element;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+      for (int i = 0; i < size; i++) {
+        if (elements[i].equals(o)) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public int size() {
+      return size;
+    }
+
+    @Override
+    public Iterator<T> iterator() {
+      return new Iterator<T>() {
+        private int index;
+
+        @Override
+        public boolean hasNext() {
+          return index < size;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked") // only Ts are added to elements
+        public T next() {
+          if (index >= size) {
+            throw new NoSuchElementException();
+          }
+          return (T) elements[index++];
+        }
+
+        @Override
+        public void remove() {
+          throw new UnsupportedOperationException();
+        }
+      };
+    }
+  }
 }
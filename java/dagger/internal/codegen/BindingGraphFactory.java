@@ -36,6 +36,7 @@ import static java.util.function.Predicate.isEqual;
 import static javax.lang.model.util.ElementFilter.methodsIn;
 
 import com.google.auto.common.MoreTypes;
+import com.google.auto.value.AutoValue;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
@@ -70,10 +71,12 @@ import java.util.Set;
 import java.util.function.Function;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.inject.Singleton;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
 
 /** A factory for {@link BindingGraph} objects. */
+@Singleton // for the module declarations cache
 final class BindingGraphFactory {
   private final DaggerElements elements;
   private final InjectBindingRegistry injectBindingRegistry;
@@ -82,6 +85,15 @@ final class BindingGraphFactory {
   private final CompilerOptions compilerOptions;
   private final ModuleDescriptor.Factory moduleDescriptorFactory;
 
+  /**
+   * The declarations of each distinct set of installed modules, shared by all components and
+   * subcomponents that install equal modules in this processor run. Only declarations are cached:
+   * how a key resolves also depends on the component's ancestors and on {@code @Inject} types, so
+   * resolved bindings are always computed per component.
+   */
+  private final Map<ImmutableSet<ModuleDescriptor>, ModuleDeclarations> moduleDeclarationsCache =
+      new HashMap<>();
+
   @Inject
   BindingGraphFactory(
       DaggerElements elements,
@@ -108,8 +120,6 @@ final class BindingGraphFactory {
   private BindingGraph create(
       Optional<Resolver> parentResolver, ComponentDescriptor componentDescriptor) {
     ImmutableSet.Builder<ContributionBinding> explicitBindingsBuilder = ImmutableSet.builder();
-    ImmutableSet.Builder<DelegateDeclaration> delegatesBuilder = ImmutableSet.builder();
-    ImmutableSet.Builder<OptionalBindingDeclaration> optionalsBuilder = ImmutableSet.builder();
 
     // binding for the component itself
     explicitBindingsBuilder.add(bindingFactory.componentBinding(componentDescriptor.typeElement()));
@@ -151,27 +161,17 @@ final class BindingGraphFactory {
               }
             });
 
-    ImmutableSet.Builder<MultibindingDeclaration> multibindingDeclarations = ImmutableSet.builder();
-    ImmutableSet.Builder<SubcomponentDeclaration> subcomponentDeclarations = ImmutableSet.builder();
-
     // Collect transitive module bindings and multibinding declarations.
-    for (ModuleDescriptor moduleDescriptor : modules(componentDescriptor, parentResolver)) {
-      explicitBindingsBuilder.addAll(moduleDescriptor.bindings());
-      multibindingDeclarations.addAll(moduleDescriptor.multibindingDeclarations());
-      subcomponentDeclarations.addAll(moduleDescriptor.subcomponentDeclarations());
-      delegatesBuilder.addAll(moduleDescriptor.delegateDeclarations());
-      optionalsBuilder.addAll(moduleDescriptor.optionalDeclarations());
-    }
+    ModuleDeclarations moduleDeclarations =
+        moduleDeclarationsCache.computeIfAbsent(
+            modules(componentDescriptor, parentResolver), ModuleDeclarations::create);
 
     final Resolver requestResolver =
         new Resolver(
             parentResolver,
             componentDescriptor,
             indexBindingDeclarationsByKey(explicitBindingsBuilder.build()),
-            indexBindingDeclarationsByKey(multibindingDeclarations.build()),
-            indexBindingDeclarationsByKey(subcomponentDeclarations.build()),
-            indexBindingDeclarationsByKey(delegatesBuilder.build()),
-            indexBindingDeclarationsByKey(optionalsBuilder.build()));
+            moduleDeclarations);
     for (DependencyRequest entryPoint : componentDescriptor.entryPoints()) {
       if (entryPoint.kind().equals(RequestKind.MEMBERS_INJECTION)) {
         requestResolver.resolveMembersInjection(entryPoint.key());
@@ -252,6 +252,64 @@ final class BindingGraphFactory {
     return moduleDescriptorFactory.create(elements.getTypeElement(ProductionExecutorModule.class));
   }
 
+  /** The binding declarations of a set of modules, indexed for resolution. */
+  @AutoValue
+  abstract static class ModuleDeclarations {
+    /** The explicit bindings declared by the modules, by key. */
+    abstract ImmutableSetMultimap<Key, ContributionBinding> bindings();
+
+    /** The values of {@link #bindings()}. */
+    abstract ImmutableSet<ContributionBinding> bindingsSet();
+
+    /**
+     * The multibinding contributions in {@link #bindings()}, by the key of the map or set they
+     * contribute to.
+     */
+    abstract ImmutableSetMultimap<Key, ContributionBinding> multibindingContributions();
+
+    abstract ImmutableSetMultimap<Key, MultibindingDeclaration> multibindingDeclarations();
+
+    abstract ImmutableSetMultimap<Key, SubcomponentDeclaration> subcomponentDeclarations();
+
+    abstract ImmutableSetMultimap<Key, DelegateDeclaration> delegateDeclarations();
+
+    /**
+     * The {@code @Binds} multibinding contributions in {@link #delegateDeclarations()}, by the key
+     * of the map or set they contribute to.
+     */
+    abstract ImmutableSetMultimap<Key, DelegateDeclaration> delegateMultibindingDeclarations();
+
+    abstract ImmutableSetMultimap<Key, OptionalBindingDeclaration> optionalBindingDeclarations();
+
+    static ModuleDeclarations create(ImmutableSet<ModuleDescriptor> modules) {
+      ImmutableSet.Builder<ContributionBinding> bindings = ImmutableSet.builder();
+      ImmutableSet.Builder<MultibindingDeclaration> multibindingDeclarations =
+          ImmutableSet.builder();
+      ImmutableSet.Builder<SubcomponentDeclaration> subcomponentDeclarations =
+          ImmutableSet.builder();
+      ImmutableSet.Builder<DelegateDeclaration> delegates = ImmutableSet.builder();
+      ImmutableSet.Builder<OptionalBindingDeclaration> optionals = ImmutableSet.builder();
+      for (ModuleDescriptor moduleDescriptor : modules) {
+        bindings.addAll(moduleDescriptor.bindings());
+        multibindingDeclarations.addAll(moduleDescriptor.multibindingDeclarations());
+        subcomponentDeclarations.addAll(moduleDescriptor.subcomponentDeclarations());
+        delegates.addAll(moduleDescriptor.delegateDeclarations());
+        optionals.addAll(moduleDescriptor.optionalDeclarations());
+      }
+      ImmutableSet<ContributionBinding> bindingsSet = bindings.build();
+      ImmutableSet<DelegateDeclaration> delegatesSet = delegates.build();
+      return new AutoValue_BindingGraphFactory_ModuleDeclarations(
+          indexBindingDeclarationsByKey(bindingsSet),
+          bindingsSet,
+          multibindingContributionsByMultibindingKey(bindingsSet),
+          indexBindingDeclarationsByKey(multibindingDeclarations.build()),
+          indexBindingDeclarationsByKey(subcomponentDeclarations.build()),
+          indexBindingDeclarationsByKey(delegatesSet),
+          multibindingContributionsByMultibindingKey(delegatesSet),
+          indexBindingDeclarationsByKey(optionals.build()));
+    }
+  }
+
   /** Indexes {@code bindingDeclarations} by {@link BindingDeclaration#key()}. */
   private static <T extends BindingDeclaration>
       ImmutableSetMultimap<Key, T> indexBindingDeclarationsByKey(Iterable<T> declarations) {
@@ -261,8 +319,9 @@ final class BindingGraphFactory {
   private final class Resolver {
     final Optional<Resolver> parentResolver;
     final ComponentDescriptor componentDescriptor;
-    final ImmutableSetMultimap<Key, ContributionBinding> explicitBindings;
-    final ImmutableSet<ContributionBinding> explicitBindingsSet;
+    final ImmutableSetMultimap<Key, ContributionBinding> componentBindings;
+    final ImmutableSet<ContributionBinding> componentBindingsSet;
+    final ModuleDeclarations moduleDeclarations;
     final ImmutableSetMultimap<Key, ContributionBinding> explicitMultibindings;
     final ImmutableSetMultimap<Key, MultibindingDeclaration> multibindingDeclarations;
     final ImmutableSetMultimap<Key, SubcomponentDeclaration> subcomponentDeclarations;
@@ -279,22 +338,21 @@ final class BindingGraphFactory {
     Resolver(
         Optional<Resolver> parentResolver,
         ComponentDescriptor componentDescriptor,
-        ImmutableSetMultimap<Key, ContributionBinding> explicitBindings,
-        ImmutableSetMultimap<Key, MultibindingDeclaration> multibindingDeclarations,
-        ImmutableSetMultimap<Key, SubcomponentDeclaration> subcomponentDeclarations,
-        ImmutableSetMultimap<Key, DelegateDeclaration> delegateDeclarations,
-        ImmutableSetMultimap<Key, OptionalBindingDeclaration> optionalBindingDeclarations) {
+        ImmutableSetMultimap<Key, ContributionBinding> componentBindings,
+        ModuleDeclarations moduleDeclarations) {
       this.parentResolver = checkNotNull(parentResolver);
       this.componentDescriptor = checkNotNull(componentDescriptor);
-      this.explicitBindings = checkNotNull(explicitBindings);
-      this.explicitBindingsSet = ImmutableSet.copyOf(explicitBindings.values());
-      this.multibindingDeclarations = checkNotNull(multibindingDeclarations);
-      this.subcomponentDeclarations = checkNotNull(subcomponentDeclarations);
-      this.delegateDeclarations = checkNotNull(delegateDeclarations);
-      this.optionalBindingDeclarations = checkNotNull(optionalBindingDeclarations);
-      this.explicitMultibindings = multibindingContributionsByMultibindingKey(explicitBindingsSet);
-      this.delegateMultibindingDeclarations =
-          multibindingContributionsByMultibindingKey(delegateDeclarations.values());
+      this.componentBindings = checkNotNull(componentBindings);
+      this.componentBindingsSet = ImmutableSet.copyOf(componentBindings.values());
+      this.moduleDeclarations = checkNotNull(moduleDeclarations);
+      // Bindings for the component, its dependencies and its builder are never multibinding
+      // contributions, so only the modules can contribute to multibindings.
+      this.explicitMultibindings = moduleDeclarations.multibindingContributions();
+      this.multibindingDeclarations = moduleDeclarations.multibindingDeclarations();
+      this.subcomponentDeclarations = moduleDeclarations.subcomponentDeclarations();
+      this.delegateDeclarations = moduleDeclarations.delegateDeclarations();
+      this.optionalBindingDeclarations = moduleDeclarations.optionalBindingDeclarations();
+      this.delegateMultibindingDeclarations = moduleDeclarations.delegateMultibindingDeclarations();
       subcomponentsToResolve.addAll(
           componentDescriptor.childComponentsDeclaredByFactoryMethods().values());
       subcomponentsToResolve.addAll(
@@ -613,7 +671,8 @@ final class BindingGraphFactory {
     }
 
     private boolean containsExplicitBinding(ContributionBinding binding) {
-      return explicitBindingsSet.contains(binding)
+      return componentBindingsSet.contains(binding)
+          || moduleDeclarations.bindingsSet().contains(binding)
           || resolverContainsDelegateDeclarationForBinding(binding)
           || subcomponentDeclarations.containsKey(binding.key());
     }
@@ -669,7 +728,8 @@ final class BindingGraphFactory {
      */
     private ImmutableSet<ContributionBinding> getLocalExplicitBindings(Key key) {
       return new ImmutableSet.Builder<ContributionBinding>()
-          .addAll(explicitBindings.get(key))
+          .addAll(componentBindings.get(key))
+          .addAll(moduleDeclarations.bindings().get(key))
           // @Binds @IntoMap declarations have key Map<K, V>, unlike @Provides @IntoMap or @Produces
           // @IntoMap, which have Map<K, Provider/Producer<V>> keys. So unwrap the key's type's
           // value type if it's a Map<K, Provider/Producer<V>> before looking in
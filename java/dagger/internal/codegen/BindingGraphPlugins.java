@@ -17,6 +17,9 @@
 package dagger.internal.codegen;
 
 import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Throwables.throwIfUnchecked;
+import static com.google.common.util.concurrent.Uninterruptibles.getUninterruptibly;
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSet;
 import static java.lang.annotation.ElementType.FIELD;
 import static java.lang.annotation.ElementType.METHOD;
@@ -24,8 +27,11 @@ import static java.lang.annotation.ElementType.PARAMETER;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
 import static javax.tools.Diagnostic.Kind.ERROR;
 
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import dagger.internal.codegen.DiagnosticReporterFactory.DiagnosticReporterImpl;
 import dagger.model.BindingGraph;
 import dagger.spi.BindingGraphPlugin;
@@ -34,6 +40,10 @@ import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.annotation.processing.Filer;
 import javax.inject.Qualifier;
 import javax.inject.Singleton;
@@ -56,6 +66,7 @@ final class BindingGraphPlugins {
   private final Elements elements;
   private final Map<String, String> processingOptions;
   private final DiagnosticReporterFactory diagnosticReporterFactory;
+  private final CompilerOptions compilerOptions;
 
   BindingGraphPlugins(
       Iterable<BindingGraphPlugin> plugins,
@@ -63,13 +74,15 @@ final class BindingGraphPlugins {
       Types types,
       Elements elements,
       Map<String, String> processingOptions,
-      DiagnosticReporterFactory diagnosticReporterFactory) {
+      DiagnosticReporterFactory diagnosticReporterFactory,
+      CompilerOptions compilerOptions) {
     this.plugins = ImmutableSet.copyOf(plugins);
     this.filer = checkNotNull(filer);
     this.types = checkNotNull(types);
     this.elements = checkNotNull(elements);
     this.processingOptions = checkNotNull(processingOptions);
     this.diagnosticReporterFactory = checkNotNull(diagnosticReporterFactory);
+    this.compilerOptions = checkNotNull(compilerOptions);
   }
 
   /** Returns {@link BindingGraphPlugin#supportedOptions()} from all the plugins. */
@@ -103,6 +116,13 @@ final class BindingGraphPlugins {
    */
   // TODO(ronshapiro): Should we validate the uniqueness of plugin names?
   ImmutableSet<Diagnostic.Kind> visitGraph(BindingGraph graph) {
+    ImmutableList<BindingGraphPlugin> modelFreePlugins =
+        compilerOptions.parallelPlugins()
+            ? plugins.stream().filter(BindingGraphPlugin::isModelFree).collect(toImmutableList())
+            : ImmutableList.of();
+    if (modelFreePlugins.size() > 1) {
+      return visitGraphInParallel(graph, modelFreePlugins);
+    }
     ImmutableSet.Builder<Diagnostic.Kind> diagnosticKinds = ImmutableSet.builder();
     for (BindingGraphPlugin plugin : plugins) {
       DiagnosticReporterImpl reporter = diagnosticReporterFactory.reporter(graph, plugin);
@@ -112,6 +132,64 @@ final class BindingGraphPlugins {
     return diagnosticKinds.build();
   }
 
+  /**
+   * Calls {@link BindingGraphPlugin#visitGraph(BindingGraph, DiagnosticReporter)} on the {@code
+   * modelFreePlugins} concurrently on a dedicated executor, each with its own {@link
+   * BufferedDiagnosticReporter}, while the other plugins visit the graph one at a time on this
+   * thread. The diagnostics of all plugins are reported on this thread in plugin order, so the
+   * output is the same as if the plugins had run one at a time.
+   */
+  private ImmutableSet<Diagnostic.Kind> visitGraphInParallel(
+      BindingGraph graph, ImmutableList<BindingGraphPlugin> modelFreePlugins) {
+    ExecutorService executor =
+        Executors.newFixedThreadPool(
+            Math.min(modelFreePlugins.size(), Runtime.getRuntime().availableProcessors()),
+            new ThreadFactoryBuilder().setNameFormat("dagger-plugin-%d").setDaemon(true).build());
+    try {
+      ImmutableMap.Builder<BindingGraphPlugin, Future<BufferedDiagnosticReporter>> visits =
+          ImmutableMap.builder();
+      for (BindingGraphPlugin plugin : modelFreePlugins) {
+        visits.put(
+            plugin,
+            executor.submit(
+                () -> {
+                  BufferedDiagnosticReporter reporter = new BufferedDiagnosticReporter();
+                  plugin.visitGraph(graph, reporter);
+                  return reporter;
+                }));
+      }
+      return visitGraphInOrder(graph, visits.build());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private ImmutableSet<Diagnostic.Kind> visitGraphInOrder(
+      BindingGraph graph,
+      ImmutableMap<BindingGraphPlugin, Future<BufferedDiagnosticReporter>> visits) {
+    ImmutableSet.Builder<Diagnostic.Kind> diagnosticKinds = ImmutableSet.builder();
+    for (BindingGraphPlugin plugin : plugins) {
+      DiagnosticReporterImpl reporter = diagnosticReporterFactory.reporter(graph, plugin);
+      if (visits.containsKey(plugin)) {
+        bufferedDiagnostics(visits.get(plugin)).replayTo(reporter);
+      } else {
+        plugin.visitGraph(graph, reporter);
+      }
+      diagnosticKinds.addAll(reporter.reportedDiagnosticKinds());
+    }
+    return diagnosticKinds.build();
+  }
+
+  private static BufferedDiagnosticReporter bufferedDiagnostics(
+      Future<BufferedDiagnosticReporter> visit) {
+    try {
+      return getUninterruptibly(visit);
+    } catch (ExecutionException e) {
+      throwIfUnchecked(e.getCause());
+      throw new IllegalStateException(e.getCause());
+    }
+  }
+
   /** Returns {@code true} if any errors are reported by any of the plugins for {@code graph}. */
   boolean pluginsReportErrors(BindingGraph graph) {
     return visitGraph(graph).contains(ERROR);
@@ -92,8 +92,15 @@ interface BindingGraphValidationModule {
       Types types,
       Elements elements,
       @ProcessingOptions Map<String, String> processingOptions,
-      DiagnosticReporterFactory diagnosticReporterFactory) {
+      DiagnosticReporterFactory diagnosticReporterFactory,
+      CompilerOptions compilerOptions) {
     return new BindingGraphPlugins(
-        validationPlugins, filer, types, elements, processingOptions, diagnosticReporterFactory);
+        validationPlugins,
+        filer,
+        types,
+        elements,
+        processingOptions,
+        diagnosticReporterFactory,
+        compilerOptions);
   }
 }
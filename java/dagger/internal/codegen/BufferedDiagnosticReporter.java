@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import dagger.model.BindingGraph.ChildFactoryMethodEdge;
+import dagger.model.BindingGraph.ComponentNode;
+import dagger.model.BindingGraph.DependencyEdge;
+import dagger.model.BindingGraph.MaybeBinding;
+import dagger.spi.DiagnosticReporter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import javax.tools.Diagnostic;
+
+/**
+ * A {@link DiagnosticReporter} that records the diagnostics reported to it so that they can be
+ * {@linkplain #replayTo(DiagnosticReporter) replayed} to another reporter later, in the order in
+ * which they were reported.
+ *
+ * <p>Nothing is formatted until the diagnostics are replayed, so a plugin that reports to this
+ * reporter from another thread never causes the compiler's model to be queried from that thread.
+ */
+final class BufferedDiagnosticReporter implements DiagnosticReporter {
+  private final List<Consumer<DiagnosticReporter>> diagnostics = new ArrayList<>();
+
+  /** Reports all of the buffered diagnostics to {@code reporter}. */
+  void replayTo(DiagnosticReporter reporter) {
+    diagnostics.forEach(diagnostic -> diagnostic.accept(reporter));
+  }
+
+  @Override
+  public void reportComponent(
+      Diagnostic.Kind diagnosticKind, ComponentNode componentNode, String message) {
+    diagnostics.add(reporter -> reporter.reportComponent(diagnosticKind, componentNode, message));
+  }
+
+  @Override
+  public void reportComponent(
+      Diagnostic.Kind diagnosticKind,
+      ComponentNode componentNode,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportComponent(
+                diagnosticKind, componentNode, messageFormat, firstArg, moreArgs));
+  }
+
+  @Override
+  public void reportBinding(Diagnostic.Kind diagnosticKind, MaybeBinding binding, String message) {
+    diagnostics.add(reporter -> reporter.reportBinding(diagnosticKind, binding, message));
+  }
+
+  @Override
+  public void reportBinding(
+      Diagnostic.Kind diagnosticKind,
+      MaybeBinding binding,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportBinding(diagnosticKind, binding, messageFormat, firstArg, moreArgs));
+  }
+
+  @Override
+  public void reportDependency(
+      Diagnostic.Kind diagnosticKind, DependencyEdge dependencyEdge, String message) {
+    diagnostics.add(
+        reporter -> reporter.reportDependency(diagnosticKind, dependencyEdge, message));
+  }
+
+  @Override
+  public void reportDependency(
+      Diagnostic.Kind diagnosticKind,
+      DependencyEdge dependencyEdge,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportDependency(
+                diagnosticKind, dependencyEdge, messageFormat, firstArg, moreArgs));
+  }
+
+  @Override
+  public void reportSubcomponentFactoryMethod(
+      Diagnostic.Kind diagnosticKind,
+      ChildFactoryMethodEdge childFactoryMethodEdge,
+      String message) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportSubcomponentFactoryMethod(
+                diagnosticKind, childFactoryMethodEdge, message));
+  }
+
+  @Override
+  public void reportSubcomponentFactoryMethod(
+      Diagnostic.Kind diagnosticKind,
+      ChildFactoryMethodEdge childFactoryMethodEdge,
+      String messageFormat,
+      Object firstArg,
+      Object... moreArgs) {
+    diagnostics.add(
+        reporter ->
+            reporter.reportSubcomponentFactoryMethod(
+                diagnosticKind, childFactoryMethodEdge, messageFormat, firstArg, moreArgs));
+  }
+}
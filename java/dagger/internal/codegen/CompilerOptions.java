@@ -36,6 +36,7 @@ import com.google.errorprone.annotations.CheckReturnValue;
 import dagger.producers.Produces;
 import java.util.Arrays;
 import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.BiConsumer;
 import java.util.stream.Stream;
@@ -71,6 +72,65 @@ abstract class CompilerOptions {
    */
   abstract boolean experimentalAndroidMode2();
 
+  /**
+   * Returns true if the experimental monitor-free scoping flag, {@code
+   * experimentalMonitorFreeScoping}, is enabled.
+   *
+   * <p>If enabled, scoped provider fields are memoized with {@link
+   * dagger.internal.AtomicDoubleCheck} instead of {@link dagger.internal.DoubleCheck}, and the
+   * scoped component methods generated in {@linkplain #fastInit() fastInit} mode lock a {@link
+   * dagger.internal.LockingMemoizedSentinel} instead of entering a {@code synchronized} block.
+   * Threads that request a binding while it is being initialized are parked instead of blocking on
+   * a monitor, which also keeps virtual threads from pinning their carrier threads. The generated
+   * code is not compatible with GWT.
+   */
+  abstract boolean monitorFreeScoping();
+
+  /**
+   * Returns true if the experimental scoped binding warm-up flag, {@code
+   * experimentalScopedBindingWarmUp}, is enabled.
+   *
+   * <p>If enabled, a {@code @Component} may declare a {@code void warmUp(Executor) throws
+   * InterruptedException} method, which is implemented to initialize all of the component's scoped
+   * bindings on the given executor. Each binding starts as soon as the scoped bindings that it
+   * depends on are initialized, so independent parts of the graph are initialized in parallel. The
+   * generated code is not compatible with GWT.
+   */
+  abstract boolean scopedBindingWarmUp();
+
+  /**
+   * Returns true if the experimental parallel plugins flag, {@code experimentalParallelPlugins},
+   * is enabled.
+   *
+   * <p>If enabled, the SPI {@link dagger.spi.BindingGraphPlugin}s that are {@linkplain
+   * dagger.spi.BindingGraphPlugin#isModelFree() model-free} visit each binding graph concurrently
+   * on a dedicated executor. All other plugins, including Dagger's own validation plugins, still
+   * visit the graph one at a time on the processing thread. Diagnostics are reported in plugin
+   * order, as if all of the plugins had run one at a time.
+   */
+  abstract boolean parallelPlugins();
+
+  /**
+   * Returns true if the experimental memoized scoped sets flag, {@code
+   * experimentalMemoizeScopedSets}, is enabled.
+   *
+   * <p>If enabled, a multibound {@code Set} whose contributions are all scoped (including {@link
+   * dagger.Reusable}) is built once per component and memoized, instead of being rebuilt each time
+   * it is requested.
+   */
+  abstract boolean memoizeScopedSets();
+
+  /**
+   * Returns true if the experimental producer dependency graph flag, {@code
+   * experimentalProducerDependencyGraph}, is enabled.
+   *
+   * <p>If enabled, root production components implement {@link
+   * dagger.producers.internal.ProducerDependencyGraph}, which exports the dependencies between
+   * their {@code @Produces} methods to monitors such as {@link
+   * dagger.producers.monitoring.CriticalPathTimingRecorderFactory}.
+   */
+  abstract boolean producerDependencyGraph();
+
   abstract boolean formatGeneratedSource();
 
   abstract boolean writeProducerNameInToken();
@@ -104,15 +164,27 @@ abstract class CompilerOptions {
 
   abstract boolean useGradleIncrementalProcessing();
 
+  /**
+   * The file that {@link DaggerStatistics} are written to as JSON when processing is over, set by
+   * {@code -Adagger.statisticsOutput=<file>}. If absent, no statistics are collected.
+   */
+  abstract Optional<String> statisticsOutput();
+
   static Builder builder() {
     return new AutoValue_CompilerOptions.Builder()
         .headerCompilation(false)
+        .monitorFreeScoping(false)
+        .scopedBindingWarmUp(false)
+        .parallelPlugins(false)
+        .memoizeScopedSets(false)
+        .producerDependencyGraph(false)
         .useGradleIncrementalProcessing(false);
   }
 
   static CompilerOptions create(ProcessingEnvironment processingEnv) {
     Builder builder = new AutoValue_CompilerOptions.Builder();
-    for (Option option : concat(allOf(Feature.class), allOf(Validation.class))) {
+    for (Option option :
+        concat(allOf(Feature.class), allOf(Validation.class), allOf(FileOption.class))) {
       option.set(builder, processingEnv);
     }
     return builder.build().validate();
@@ -136,6 +208,16 @@ abstract class CompilerOptions {
 
     Builder experimentalAndroidMode2(boolean experimentalAndroidMode2);
 
+    Builder monitorFreeScoping(boolean monitorFreeScoping);
+
+    Builder scopedBindingWarmUp(boolean scopedBindingWarmUp);
+
+    Builder parallelPlugins(boolean parallelPlugins);
+
+    Builder memoizeScopedSets(boolean memoizeScopedSets);
+
+    Builder producerDependencyGraph(boolean producerDependencyGraph);
+
     Builder formatGeneratedSource(boolean formatGeneratedSource);
 
     Builder writeProducerNameInToken(boolean writeProducerNameInToken);
@@ -158,6 +240,8 @@ abstract class CompilerOptions {
 
     Builder useGradleIncrementalProcessing(boolean enabled);
 
+    Builder statisticsOutput(Optional<String> statisticsOutput);
+
     @CheckReturnValue
     CompilerOptions build();
   }
@@ -204,6 +288,16 @@ abstract class CompilerOptions {
 
     EXPERIMENTAL_ANDROID_MODE2(Builder::experimentalAndroidMode2),
 
+    EXPERIMENTAL_MONITOR_FREE_SCOPING(Builder::monitorFreeScoping),
+
+    EXPERIMENTAL_SCOPED_BINDING_WARM_UP(Builder::scopedBindingWarmUp),
+
+    EXPERIMENTAL_PARALLEL_PLUGINS(Builder::parallelPlugins),
+
+    EXPERIMENTAL_MEMOIZE_SCOPED_SETS(Builder::memoizeScopedSets),
+
+    EXPERIMENTAL_PRODUCER_DEPENDENCY_GRAPH(Builder::producerDependencyGraph),
+
     FORMAT_GENERATED_SOURCE(Builder::formatGeneratedSource, ENABLED),
 
     WRITE_PRODUCER_NAME_IN_TOKEN(Builder::writeProducerNameInToken),
@@ -335,8 +429,38 @@ abstract class CompilerOptions {
     }
   }
 
+  /** An option whose value is the path of a file. */
+  private enum FileOption implements Option {
+    STATISTICS_OUTPUT(Builder::statisticsOutput),
+    ;
+
+    final BiConsumer<Builder, Optional<String>> setter;
+
+    FileOption(BiConsumer<Builder, Optional<String>> setter) {
+      this.setter = setter;
+    }
+
+    @Override
+    public void set(Builder builder, ProcessingEnvironment processingEnvironment) {
+      Map<String, String> options = processingEnvironment.getOptions();
+      if (options.containsKey(toString()) && options.get(toString()) == null) {
+        processingEnvironment
+            .getMessager()
+            .printMessage(
+                Diagnostic.Kind.ERROR, "Processor option -A" + toString() + " needs a value");
+      }
+      setter.accept(builder, Optional.ofNullable(options.get(toString())));
+    }
+
+    @Override
+    public String toString() {
+      return optionName(name());
+    }
+  }
+
   static final ImmutableSet<String> SUPPORTED_OPTIONS =
-      Stream.<Option>concat(Arrays.stream(Feature.values()), Arrays.stream(Validation.values()))
+      Stream.<Option[]>of(Feature.values(), Validation.values(), FileOption.values())
+          .flatMap(Arrays::stream)
           .filter(Option::useCommandLineOption)
           .map(Object::toString)
           .collect(toImmutableSet());
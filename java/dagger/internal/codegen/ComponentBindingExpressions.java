@@ -26,6 +26,7 @@ import static dagger.internal.codegen.BindingType.MEMBERS_INJECTION;
 import static dagger.internal.codegen.CodeBlocks.makeParametersCodeBlock;
 import static dagger.internal.codegen.DelegateBindingExpression.isBindsScopeStrongerThanDependencyScope;
 import static dagger.internal.codegen.MemberSelect.staticFactoryCreation;
+import static dagger.internal.codegen.TypeNames.ATOMIC_DOUBLE_CHECK;
 import static dagger.internal.codegen.TypeNames.DOUBLE_CHECK;
 import static dagger.internal.codegen.TypeNames.SINGLE_CHECK;
 import static dagger.model.BindingKind.DELEGATE;
@@ -34,6 +35,7 @@ import static dagger.model.BindingKind.MULTIBOUND_SET;
 
 import com.google.auto.common.MoreTypes;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
 import com.squareup.javapoet.ClassName;
 import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.MethodSpec;
@@ -291,7 +293,9 @@ final class ComponentBindingExpressions {
     FrameworkInstanceCreationExpression frameworkInstanceCreationExpression =
         resolvedBindings.scope().isPresent()
             ? scope(resolvedBindings, frameworkInstanceCreationExpression(resolvedBindings))
-            : frameworkInstanceCreationExpression(resolvedBindings);
+            : isMemoizedSet(resolvedBindings)
+                ? singleCheck(frameworkInstanceCreationExpression(resolvedBindings))
+                : frameworkInstanceCreationExpression(resolvedBindings);
     FrameworkInstanceSupplier frameworkInstanceSupplier =
         staticMethod.isPresent()
             ? staticMethod::get
@@ -315,10 +319,42 @@ final class ComponentBindingExpressions {
     return () ->
         CodeBlock.of(
             "$T.provider($L)",
-            resolvedBindings.scope().get().isReusable() ? SINGLE_CHECK : DOUBLE_CHECK,
+            resolvedBindings.scope().get().isReusable() ? SINGLE_CHECK : doubleCheckType(),
             unscoped.creationExpression());
   }
 
+  private FrameworkInstanceCreationExpression singleCheck(
+      FrameworkInstanceCreationExpression unmemoized) {
+    return () -> CodeBlock.of("$T.provider($L)", SINGLE_CHECK, unmemoized.creationExpression());
+  }
+
+  /**
+   * Returns {@code true} if {@code resolvedBindings} is a multibound set whose {@link
+   * dagger.internal.SetFactory} is memoized, which is the case if {@linkplain
+   * CompilerOptions#memoizeScopedSets() enabled} and every contribution to the set is scoped. The
+   * set then always has the same elements, so building it once is enough.
+   */
+  private boolean isMemoizedSet(ResolvedBindings resolvedBindings) {
+    if (!compilerOptions.memoizeScopedSets()
+        || compilerOptions.aheadOfTimeSubcomponents()
+        || !resolvedBindings.bindingType().equals(BindingType.PROVISION)
+        || !resolvedBindings.contributionBinding().kind().equals(MULTIBOUND_SET)) {
+      return false;
+    }
+    ImmutableSet<DependencyRequest> contributions =
+        resolvedBindings.contributionBinding().dependencies();
+    return !contributions.isEmpty()
+        && contributions.stream()
+            .map(contribution -> graph.contributionBindings().get(contribution.key()))
+            .allMatch(
+                contribution -> contribution != null && contribution.scope().isPresent());
+  }
+
+  /** Returns the type used to memoize non-{@link dagger.Reusable} scoped provider fields. */
+  private ClassName doubleCheckType() {
+    return compilerOptions.monitorFreeScoping() ? ATOMIC_DOUBLE_CHECK : DOUBLE_CHECK;
+  }
+
   /**
    * Returns a creation expression for a {@link javax.inject.Provider} for provision bindings or a
    * {@link dagger.producers.Producer} for production bindings.
@@ -618,9 +654,13 @@ final class ComponentBindingExpressions {
    *
    * <p>In fastInit mode, we can use a direct expression even if the binding {@linkplain
    * #needsCaching(ResolvedBindings) needs to be cached}.
+   *
+   * <p>{@linkplain #isMemoizedSet(ResolvedBindings) Memoized sets} are always requested from their
+   * memoized provider.
    */
   private boolean canUseDirectInstanceExpression(ResolvedBindings resolvedBindings) {
-    return !needsCaching(resolvedBindings) || compilerOptions.fastInit();
+    return (!needsCaching(resolvedBindings) || compilerOptions.fastInit())
+        && !isMemoizedSet(resolvedBindings);
   }
 
   /**
@@ -690,7 +730,12 @@ final class ComponentBindingExpressions {
             ? new SingleCheckedMethodImplementation(
                 resolvedBindings, request, bindingExpression, types, componentImplementation)
             : new DoubleCheckedMethodImplementation(
-                resolvedBindings, request, bindingExpression, types, componentImplementation);
+                resolvedBindings,
+                request,
+                bindingExpression,
+                types,
+                componentImplementation,
+                compilerOptions);
       }
     }
 
@@ -65,6 +65,7 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
@@ -406,6 +407,10 @@ abstract class ComponentDescriptor {
         ExecutableElement methodElement) {
       return create(kind, Optional.of(dependencyRequestForBuilder), methodElement);
     }
+
+    static ComponentMethodDescriptor forWarmUp(ExecutableElement methodElement) {
+      return create(ComponentMethodKind.WARM_UP, Optional.empty(), methodElement);
+    }
   }
 
   enum ComponentMethodKind {
@@ -415,7 +420,9 @@ abstract class ComponentDescriptor {
     SUBCOMPONENT,
     SUBCOMPONENT_BUILDER,
     PRODUCTION_SUBCOMPONENT,
-    PRODUCTION_SUBCOMPONENT_BUILDER;
+    PRODUCTION_SUBCOMPONENT_BUILDER,
+    /** A {@code warmUp(Executor)} method; see {@link CompilerOptions#scopedBindingWarmUp()}. */
+    WARM_UP;
 
     boolean isSubcomponentKind() {
       return this == SUBCOMPONENT || this == PRODUCTION_SUBCOMPONENT;
@@ -653,6 +660,11 @@ abstract class ComponentDescriptor {
         }
       }
 
+      if (compilerOptions.scopedBindingWarmUp()
+          && isWarmUpMethod(componentMethod, resolvedComponentMethod)) {
+        return ComponentMethodDescriptor.forWarmUp(componentMethod);
+      }
+
       List<? extends TypeMirror> parameterTypes = resolvedComponentMethod.getParameterTypes();
       if (parameterTypes.size() == 1
           && (returnType.getKind().equals(VOID)
@@ -744,6 +756,18 @@ abstract class ComponentDescriptor {
         && !NON_CONTRIBUTING_OBJECT_METHOD_NAMES.contains(method.getSimpleName().toString());
   }
 
+  /**
+   * Returns true if {@code method} has the signature {@code void warmUp(Executor)}. When {@link
+   * CompilerOptions#scopedBindingWarmUp()} is enabled, such a method is implemented to initialize
+   * the component's scoped bindings instead of being treated as a members-injection method.
+   */
+  static boolean isWarmUpMethod(ExecutableElement method, ExecutableType resolvedMethod) {
+    return method.getSimpleName().contentEquals("warmUp")
+        && resolvedMethod.getReturnType().getKind().equals(VOID)
+        && resolvedMethod.getParameterTypes().size() == 1
+        && MoreTypes.isTypeOf(Executor.class, getOnlyElement(resolvedMethod.getParameterTypes()));
+  }
+
   static boolean isComponentProductionMethod(DaggerElements elements, ExecutableElement method) {
     return isComponentContributionMethod(elements, method) && isFutureType(method.getReturnType());
   }
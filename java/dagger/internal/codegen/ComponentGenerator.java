@@ -34,15 +34,18 @@ import javax.lang.model.element.TypeElement;
  */
 final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
   private final ComponentImplementationFactory componentImplementationFactory;
+  private final DaggerStatistics daggerStatistics;
 
   @Inject
   ComponentGenerator(
       Filer filer,
       DaggerElements elements,
       SourceVersion sourceVersion,
-      ComponentImplementationFactory componentImplementationFactory) {
+      ComponentImplementationFactory componentImplementationFactory,
+      DaggerStatistics daggerStatistics) {
     super(filer, elements, sourceVersion);
     this.componentImplementationFactory = componentImplementationFactory;
+    this.daggerStatistics = daggerStatistics;
   }
 
   @Override
@@ -67,4 +70,10 @@ final class ComponentGenerator extends SourceFileGenerator<BindingGraph> {
     verify(componentImplementation.name().equals(componentName));
     return Optional.of(componentImplementation.generate());
   }
+
+  @Override
+  void generatedTypeBuilt(BindingGraph bindingGraph, TypeSpec generatedComponent) {
+    daggerStatistics.recordGeneratedComponent(
+        bindingGraph.componentTypeElement(), generatedComponent);
+  }
 }
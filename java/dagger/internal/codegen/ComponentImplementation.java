@@ -77,7 +77,13 @@ final class ComponentImplementation {
     FRAMEWORK_FIELD,
 
     /** A static field that always returns an absent {@code Optional} value for the binding. */
-    ABSENT_OPTIONAL_FIELD
+    ABSENT_OPTIONAL_FIELD,
+
+    /**
+     * The static field of a root production component that holds the dependencies between its
+     * producers.
+     */
+    PRODUCER_DEPENDENCIES_FIELD
   }
 
   /** A type of method that this component can contain. */
@@ -124,6 +130,15 @@ final class ComponentImplementation {
      * method for a production component.
      */
     CANCELLATION_LISTENER_METHOD,
+
+    /** The {@code warmUp(Executor)} method that initializes a root component's scoped bindings. */
+    WARM_UP_METHOD,
+
+    /**
+     * The {@link dagger.producers.internal.ProducerDependencyGraph#producerDependencies()} method
+     * of a root production component.
+     */
+    PRODUCER_DEPENDENCIES_METHOD,
     ;
   }
 
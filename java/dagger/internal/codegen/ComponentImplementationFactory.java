@@ -54,6 +54,7 @@ import com.squareup.javapoet.MethodSpec;
 import com.squareup.javapoet.ParameterSpec;
 import com.squareup.javapoet.TypeSpec;
 import dagger.internal.codegen.ComponentDescriptor.ComponentMethodDescriptor;
+import dagger.internal.codegen.ComponentDescriptor.ComponentMethodKind;
 import dagger.internal.codegen.ModifiableBindingMethods.ModifiableBindingMethod;
 import dagger.model.Key;
 import dagger.producers.internal.CancellationListener;
@@ -82,6 +83,7 @@ final class ComponentImplementationFactory {
   private final KeyFactory keyFactory;
   private final CompilerOptions compilerOptions;
   private final BindingGraphFactory bindingGraphFactory;
+  private final ProducerDependencyGraphFactory producerDependencyGraphFactory;
 
   @Inject
   ComponentImplementationFactory(
@@ -89,12 +91,14 @@ final class ComponentImplementationFactory {
       DaggerElements elements,
       KeyFactory keyFactory,
       CompilerOptions compilerOptions,
-      BindingGraphFactory bindingGraphFactory) {
+      BindingGraphFactory bindingGraphFactory,
+      ProducerDependencyGraphFactory producerDependencyGraphFactory) {
     this.types = types;
     this.elements = elements;
     this.keyFactory = keyFactory;
     this.compilerOptions = compilerOptions;
     this.bindingGraphFactory = bindingGraphFactory;
+    this.producerDependencyGraphFactory = producerDependencyGraphFactory;
   }
 
   /**
@@ -206,6 +210,8 @@ final class ComponentImplementationFactory {
       addFactoryMethods();
       addInterfaceMethods();
       addChildComponents();
+      addWarmUpMethod();
+      addProducerDependencyGraph();
       addConstructor();
 
       if (graph.componentDescriptor().kind().isProducer()) {
@@ -235,6 +241,12 @@ final class ComponentImplementationFactory {
     /** Adds component factory methods. */
     abstract void addFactoryMethods();
 
+    /** Implements the method that eagerly initializes scoped bindings, if the component has one. */
+    void addWarmUpMethod() {}
+
+    /** Exports the dependencies between producers, if the component supports it. */
+    void addProducerDependencyGraph() {}
+
     void addInterfaceMethods() {
       // Each component method may have been declared by several supertypes. We want to implement
       // only one method for each distinct signature.
@@ -575,6 +587,24 @@ final class ComponentImplementationFactory {
       componentImplementation.addType(COMPONENT_BUILDER, builder);
     }
 
+    @Override
+    void addWarmUpMethod() {
+      for (ComponentMethodDescriptor method : graph.componentDescriptor().componentMethods()) {
+        if (method.kind().equals(ComponentMethodKind.WARM_UP)) {
+          new WarmUpMethodFactory(graph, componentImplementation, bindingExpressions, types)
+              .addWarmUpMethod(method.methodElement());
+        }
+      }
+    }
+
+    @Override
+    void addProducerDependencyGraph() {
+      if (compilerOptions.producerDependencyGraph()
+          && graph.componentDescriptor().kind().isProducer()) {
+        producerDependencyGraphFactory.addProducerDependencyGraph(graph, componentImplementation);
+      }
+    }
+
     @Override
     void addFactoryMethods() {
       // Only top-level components have the factory builder() method.
@@ -16,6 +16,9 @@
 
 package dagger.internal.codegen;
 
+import static dagger.internal.codegen.DaggerStatistics.ComponentPhase.BINDING_GRAPH_FACTORY;
+import static dagger.internal.codegen.DaggerStatistics.ComponentPhase.GENERATION;
+import static dagger.internal.codegen.DaggerStatistics.ComponentPhase.VALIDATION;
 import static javax.lang.model.util.ElementFilter.typesIn;
 
 import com.google.auto.common.BasicAnnotationProcessor.ProcessingStep;
@@ -54,6 +57,7 @@ final class ComponentProcessingStep implements ProcessingStep {
   private final BindingGraphPlugins validationPlugins;
   private final BindingGraphPlugins spiPlugins;
   private final CompilerOptions compilerOptions;
+  private final DaggerStatistics daggerStatistics;
 
   @Inject
   ComponentProcessingStep(
@@ -67,7 +71,8 @@ final class ComponentProcessingStep implements ProcessingStep {
       BindingGraphConverter bindingGraphConverter,
       @Validation BindingGraphPlugins validationPlugins,
       BindingGraphPlugins spiPlugins,
-      CompilerOptions compilerOptions) {
+      CompilerOptions compilerOptions,
+      DaggerStatistics daggerStatistics) {
     this.messager = messager;
     this.componentValidator = componentValidator;
     this.builderValidator = builderValidator;
@@ -79,6 +84,7 @@ final class ComponentProcessingStep implements ProcessingStep {
     this.validationPlugins = validationPlugins;
     this.spiPlugins = spiPlugins;
     this.compilerOptions = compilerOptions;
+    this.daggerStatistics = daggerStatistics;
   }
 
   @Override
@@ -141,7 +147,7 @@ final class ComponentProcessingStep implements ProcessingStep {
         if (!componentDescriptorReport.isClean()) {
           continue;
         }
-        BindingGraph bindingGraph = bindingGraphFactory.create(componentDescriptor);
+        BindingGraph bindingGraph = createBindingGraph(componentDescriptor);
         if (isValid(bindingGraph)) {
           generateComponent(bindingGraph);
         }
@@ -159,7 +165,7 @@ final class ComponentProcessingStep implements ProcessingStep {
         try {
           ComponentDescriptor componentDescriptor =
               componentDescriptorFactory.forComponent(subcomponentTypeElement);
-          BindingGraph bindingGraph = bindingGraphFactory.create(componentDescriptor);
+          BindingGraph bindingGraph = createBindingGraph(componentDescriptor);
           // TODO(b/72748365): Do subgraph validation.
           generateComponent(bindingGraph);
         } catch (TypeNotPresentException e) {
@@ -171,14 +177,35 @@ final class ComponentProcessingStep implements ProcessingStep {
     return rejectedElements.build();
   }
 
+  private BindingGraph createBindingGraph(ComponentDescriptor componentDescriptor) {
+    BindingGraph bindingGraph =
+        daggerStatistics.time(
+            componentDescriptor.typeElement(),
+            BINDING_GRAPH_FACTORY,
+            () -> bindingGraphFactory.create(componentDescriptor));
+    daggerStatistics.recordBindingGraph(bindingGraph);
+    return bindingGraph;
+  }
+
   private boolean isValid(BindingGraph bindingGraph) {
-    dagger.model.BindingGraph modelGraph = bindingGraphConverter.convert(bindingGraph);
-    return !validationPlugins.pluginsReportErrors(modelGraph)
-        && !spiPlugins.pluginsReportErrors(modelGraph);
+    return daggerStatistics.time(
+        bindingGraph.componentTypeElement(),
+        VALIDATION,
+        () -> {
+          dagger.model.BindingGraph modelGraph = bindingGraphConverter.convert(bindingGraph);
+          return !validationPlugins.pluginsReportErrors(modelGraph)
+              && !spiPlugins.pluginsReportErrors(modelGraph);
+        });
   }
 
   private void generateComponent(BindingGraph bindingGraph) {
-    componentGenerator.generate(bindingGraph, messager);
+    daggerStatistics.time(
+        bindingGraph.componentTypeElement(),
+        GENERATION,
+        () -> {
+          componentGenerator.generate(bindingGraph, messager);
+          return null;
+        });
   }
 
   static ImmutableSet<Element> getElementsFromAnnotations(
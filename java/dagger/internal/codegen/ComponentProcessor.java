@@ -16,6 +16,8 @@
 
 package dagger.internal.codegen;
 
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
+
 import com.google.auto.common.BasicAnnotationProcessor;
 import com.google.auto.service.AutoService;
 import com.google.common.annotations.VisibleForTesting;
@@ -112,7 +114,7 @@ public class ComponentProcessor extends BasicAnnotationProcessor {
     daggerStatistics.processingStarted();
     spiPlugins.initializePlugins();
     validationPlugins.initializePlugins();
-    return processingSteps;
+    return processingSteps.stream().map(daggerStatistics::timed).collect(toImmutableList());
   }
 
   @Singleton
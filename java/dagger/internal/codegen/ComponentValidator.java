@@ -23,6 +23,7 @@ import static com.google.auto.common.MoreTypes.asDeclared;
 import static com.google.auto.common.MoreTypes.asExecutable;
 import static com.google.common.base.Verify.verify;
 import static com.google.common.collect.Multimaps.asMap;
+import static dagger.internal.codegen.ComponentDescriptor.isWarmUpMethod;
 import static dagger.internal.codegen.ConfigurationAnnotations.enclosedBuilders;
 import static dagger.internal.codegen.ConfigurationAnnotations.getComponentDependencies;
 import static dagger.internal.codegen.ConfigurationAnnotations.getComponentModules;
@@ -87,6 +88,7 @@ final class ComponentValidator {
   private final MembersInjectionValidator membersInjectionValidator;
   private final MethodSignatureFormatter methodSignatureFormatter;
   private final DependencyRequestFactory dependencyRequestFactory;
+  private final CompilerOptions compilerOptions;
 
   @Inject
   ComponentValidator(
@@ -97,7 +99,8 @@ final class ComponentValidator {
       DependencyRequestValidator dependencyRequestValidator,
       MembersInjectionValidator membersInjectionValidator,
       MethodSignatureFormatter methodSignatureFormatter,
-      DependencyRequestFactory dependencyRequestFactory) {
+      DependencyRequestFactory dependencyRequestFactory,
+      CompilerOptions compilerOptions) {
     this.elements = elements;
     this.types = types;
     this.moduleValidator = moduleValidator;
@@ -106,6 +109,7 @@ final class ComponentValidator {
     this.membersInjectionValidator = membersInjectionValidator;
     this.methodSignatureFormatter = methodSignatureFormatter;
     this.dependencyRequestFactory = dependencyRequestFactory;
+    this.compilerOptions = compilerOptions;
   }
 
   @AutoValue
@@ -215,6 +219,11 @@ final class ComponentValidator {
                         report, method, returnType);
                     break;
                   case 1:
+                    if (compilerOptions.scopedBindingWarmUp()
+                        && isWarmUpMethod(method, resolvedMethod)) {
+                      validateWarmUpMethod(report, componentKind, method);
+                      break;
+                    }
                     // one parameter means that it's a members injection method
                     TypeMirror parameterType = Iterables.getOnlyElement(parameterTypes);
                     report.addSubreport(
@@ -432,6 +441,20 @@ final class ComponentValidator {
     }
   }
 
+  private void validateWarmUpMethod(
+      ValidationReport.Builder<TypeElement> report,
+      ComponentDescriptor.Kind componentKind,
+      ExecutableElement method) {
+    if (!componentKind.equals(ComponentDescriptor.Kind.COMPONENT)) {
+      report.addError("warmUp(Executor) methods may only be declared on @Component types", method);
+    }
+    TypeMirror interruptedException = elements.getTypeElement(InterruptedException.class).asType();
+    if (method.getThrownTypes().stream()
+        .noneMatch(thrownType -> types.isSubtype(interruptedException, thrownType))) {
+      report.addError("warmUp(Executor) methods must throw InterruptedException", method);
+    }
+  }
+
   private void validateSubcomponentBuilderMethod(
       ValidationReport.Builder<TypeElement> report,
       ExecutableElement method,
@@ -16,23 +16,78 @@
 
 package dagger.internal.codegen;
 
+import static com.google.common.base.CaseFormat.LOWER_CAMEL;
+import static com.google.common.base.CaseFormat.UPPER_UNDERSCORE;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.auto.common.BasicAnnotationProcessor.ProcessingStep;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Stopwatch;
 import com.google.common.base.Ticker;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.SetMultimap;
+import com.squareup.javapoet.TypeSpec;
+import dagger.model.ComponentPath;
+import dagger.model.DependencyRequest;
+import dagger.model.Key;
+import java.io.IOException;
+import java.lang.annotation.Annotation;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+import javax.annotation.processing.Messager;
 import javax.inject.Inject;
 import javax.inject.Singleton;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
 
+/**
+ * Collects timings and graph metrics for a run of the {@link ComponentProcessor}, and writes them
+ * as JSON to the file named by {@code -Adagger.statisticsOutput} when processing is over.
+ *
+ * <p>Nothing but the total runtime is recorded unless that option is set.
+ */
 @Singleton // for state sharing
 final class DaggerStatistics {
+  /** The phases of processing a single component that are timed. */
+  enum ComponentPhase {
+    BINDING_GRAPH_FACTORY,
+    VALIDATION,
+    GENERATION,
+  }
 
+  private final Ticker ticker;
+  private final CompilerOptions compilerOptions;
+  private final Messager messager;
   private final Stopwatch totalRuntimeStopwatch;
+  private final Map<String, Long> processingStepNanos = new LinkedHashMap<>();
+  private final Map<String, ComponentStatistics> componentStatistics = new LinkedHashMap<>();
 
   @Inject
-  DaggerStatistics(
-      Ticker ticker) {
+  DaggerStatistics(Ticker ticker, CompilerOptions compilerOptions, Messager messager) {
+    this.ticker = ticker;
+    this.compilerOptions = compilerOptions;
+    this.messager = messager;
     totalRuntimeStopwatch = Stopwatch.createUnstarted(ticker);
   }
 
+  private boolean enabled() {
+    return compilerOptions.statisticsOutput().isPresent();
+  }
+
   void processingStarted() {
     Preconditions.checkState(!totalRuntimeStopwatch.isRunning());
     totalRuntimeStopwatch.start();
@@ -41,6 +96,338 @@ final class DaggerStatistics {
   void processingStopped() {
     Preconditions.checkState(totalRuntimeStopwatch.isRunning());
     totalRuntimeStopwatch.stop();
+    if (enabled()) {
+      writeStatistics(compilerOptions.statisticsOutput().get());
+    }
+  }
+
+  /**
+   * Returns a processing step that delegates to {@code step} and records the time spent in it, or
+   * {@code step} itself if statistics are disabled.
+   */
+  ProcessingStep timed(ProcessingStep step) {
+    if (!enabled()) {
+      return step;
+    }
+    String name = step.getClass().getSimpleName();
+    return new ProcessingStep() {
+      @Override
+      public Set<? extends Class<? extends Annotation>> annotations() {
+        return step.annotations();
+      }
+
+      @Override
+      public Set<? extends Element> process(
+          SetMultimap<Class<? extends Annotation>, Element> elementsByAnnotation) {
+        Stopwatch stopwatch = Stopwatch.createStarted(ticker);
+        try {
+          return step.process(elementsByAnnotation);
+        } finally {
+          processingStepNanos.merge(name, stopwatch.elapsed(NANOSECONDS), Long::sum);
+        }
+      }
+    };
+  }
+
+  /** Runs {@code operation} and records its time against {@code phase} of {@code component}. */
+  <T> T time(TypeElement component, ComponentPhase phase, Supplier<T> operation) {
+    if (!enabled()) {
+      return operation.get();
+    }
+    Stopwatch stopwatch = Stopwatch.createStarted(ticker);
+    try {
+      return operation.get();
+    } finally {
+      statistics(component).phaseNanos.merge(phase, stopwatch.elapsed(NANOSECONDS), Long::sum);
+    }
+  }
+
+  /** Records the size and shape of the binding graph for a component and its subcomponents. */
+  void recordBindingGraph(BindingGraph graph) {
+    if (!enabled()) {
+      return;
+    }
+    ComponentStatistics statistics = statistics(graph.componentTypeElement());
+    recordBindingGraph(graph, ImmutableList.of(), new HashMap<>(), statistics);
+  }
+
+  private void recordBindingGraph(
+      BindingGraph graph,
+      ImmutableList<TypeElement> parentComponents,
+      Map<Key, ResolvedBindings> ancestorBindings,
+      ComponentStatistics stats) {
+    ImmutableList<TypeElement> components =
+        ImmutableList.<TypeElement>builder()
+            .addAll(parentComponents)
+            .add(graph.componentTypeElement())
+            .build();
+    // A subcomponent may be installed in more than one parent, so it is identified by its path.
+    String componentPath = ComponentPath.create(components).toString();
+    Map<Key, ResolvedBindings> visibleBindings = new HashMap<>(ancestorBindings);
+    visibleBindings.putAll(graph.contributionBindings());
+
+    int bindingCount = 0;
+    Map<String, Integer> multibindingSizes = new LinkedHashMap<>();
+    DependencyDepths depths = new DependencyDepths(visibleBindings);
+    for (ResolvedBindings resolvedBindings : graph.contributionBindings().values()) {
+      for (ContributionBinding binding : resolvedBindings.contributionBindings()) {
+        bindingCount++;
+        if (binding.kind().isMultibinding()) {
+          multibindingSizes.put(binding.key().toString(), binding.dependencies().size());
+        }
+      }
+      stats.maxDependencyDepth =
+          Math.max(stats.maxDependencyDepth, depths.depth(resolvedBindings.key()));
+    }
+    stats.bindingsPerComponent.put(componentPath, bindingCount);
+    if (!multibindingSizes.isEmpty()) {
+      stats.multibindingSizes.put(componentPath, multibindingSizes);
+    }
+
+    for (BindingGraph subgraph : graph.subgraphs()) {
+      recordBindingGraph(subgraph, components, visibleBindings, stats);
+    }
+  }
+
+  /**
+   * Computes the length of the longest chain of dependencies starting at each key.
+   *
+   * <p>Dependency cycles, which are only valid through {@code Provider} or {@code Lazy}, are
+   * collapsed: each strongly connected component of the dependency graph counts as a single link
+   * in a chain, so a key's depth doesn't depend on which key the cycle was entered from. The
+   * components are found with an iterative version of Tarjan's algorithm so that long chains of
+   * dependencies can't overflow the stack.
+   */
+  private static final class DependencyDepths {
+    private final Map<Key, ResolvedBindings> bindings;
+    /** The depths of the keys whose strongly connected component has been completed. */
+    private final Map<Key, Integer> depths = new HashMap<>();
+    private final Map<Key, Integer> indices = new HashMap<>();
+    private final Map<Key, Integer> lowLinks = new HashMap<>();
+    private final Deque<Key> componentStack = new ArrayDeque<>();
+    private final Set<Key> onComponentStack = new HashSet<>();
+
+    DependencyDepths(Map<Key, ResolvedBindings> bindings) {
+      this.bindings = bindings;
+    }
+
+    /** Returns the length of the longest chain of dependencies starting at {@code key}. */
+    int depth(Key key) {
+      if (!depths.containsKey(key)) {
+        visit(key);
+      }
+      return depths.getOrDefault(key, 0);
+    }
+
+    private void visit(Key root) {
+      Deque<Visit> visits = new ArrayDeque<>();
+      visits.push(startVisit(root));
+      while (!visits.isEmpty()) {
+        Visit visit = visits.peek();
+        if (visit.dependencies.hasNext()) {
+          Key dependency = visit.dependencies.next();
+          if (!indices.containsKey(dependency)) {
+            visits.push(startVisit(dependency));
+          } else if (onComponentStack.contains(dependency)) {
+            lowerLowLink(visit.key, indices.get(dependency));
+          }
+          continue;
+        }
+        visits.pop();
+        if (lowLinks.get(visit.key).equals(indices.get(visit.key))) {
+          completeComponent(visit.key);
+        }
+        if (!visits.isEmpty()) {
+          lowerLowLink(visits.peek().key, lowLinks.get(visit.key));
+        }
+      }
+    }
+
+    private Visit startVisit(Key key) {
+      indices.put(key, indices.size());
+      lowLinks.put(key, indices.get(key));
+      componentStack.push(key);
+      onComponentStack.add(key);
+      return new Visit(key, dependencies(key).iterator());
+    }
+
+    private void lowerLowLink(Key key, int lowLink) {
+      lowLinks.put(key, Math.min(lowLinks.get(key), lowLink));
+    }
+
+    /**
+     * Pops the strongly connected component whose first visited key is {@code root} and records
+     * its depth. All of the components that it depends on have already been completed.
+     */
+    private void completeComponent(Key root) {
+      Set<Key> component = new HashSet<>();
+      Key member;
+      do {
+        member = componentStack.pop();
+        onComponentStack.remove(member);
+        component.add(member);
+      } while (!member.equals(root));
+
+      int maxDependencyDepth = 0;
+      for (Key key : component) {
+        for (Key dependency : dependencies(key)) {
+          if (!component.contains(dependency)) {
+            maxDependencyDepth = Math.max(maxDependencyDepth, depths.get(dependency));
+          }
+        }
+      }
+      for (Key key : component) {
+        depths.put(key, maxDependencyDepth + 1);
+      }
+    }
+
+    /** Returns the keys of the bound dependencies of the bindings for {@code key}. */
+    private Set<Key> dependencies(Key key) {
+      Set<Key> dependencies = new LinkedHashSet<>();
+      ResolvedBindings resolvedBindings = bindings.get(key);
+      if (resolvedBindings != null) {
+        for (ContributionBinding binding : resolvedBindings.contributionBindings()) {
+          for (DependencyRequest dependency : binding.dependencies()) {
+            if (bindings.containsKey(dependency.key())) {
+              dependencies.add(dependency.key());
+            }
+          }
+        }
+      }
+      return dependencies;
+    }
+
+    /** A key whose dependencies are being visited. */
+    private static final class Visit {
+      final Key key;
+      final Iterator<Key> dependencies;
+
+      Visit(Key key, Iterator<Key> dependencies) {
+        this.key = key;
+        this.dependencies = dependencies;
+      }
+    }
+  }
+
+  /** Records the number of fields, methods and types in a generated component. */
+  void recordGeneratedComponent(TypeElement component, TypeSpec generatedComponent) {
+    if (!enabled()) {
+      return;
+    }
+    recordGeneratedType(statistics(component), generatedComponent);
+  }
+
+  private static void recordGeneratedType(ComponentStatistics stats, TypeSpec type) {
+    stats.generatedTypes++;
+    stats.generatedFields += type.fieldSpecs.size();
+    stats.generatedMethods += type.methodSpecs.size();
+    for (TypeSpec nestedType : type.typeSpecs) {
+      recordGeneratedType(stats, nestedType);
+    }
+  }
+
+  private ComponentStatistics statistics(TypeElement component) {
+    return componentStatistics.computeIfAbsent(
+        component.getQualifiedName().toString(), name -> new ComponentStatistics());
+  }
+
+  private void writeStatistics(String path) {
+    StringBuilder json = new StringBuilder();
+    json.append("{\n")
+        .append("  \"totalRuntimeMillis\": ")
+        .append(totalRuntimeStopwatch.elapsed(MILLISECONDS))
+        .append(",\n")
+        .append("  \"processingStepMillis\": ");
+    appendMillis(json, processingStepNanos);
+    json.append(",\n").append("  \"components\": {");
+    String separator = "\n";
+    for (Map.Entry<String, ComponentStatistics> entry : componentStatistics.entrySet()) {
+      json.append(separator).append("    ").append(jsonString(entry.getKey())).append(": ");
+      entry.getValue().appendTo(json);
+      separator = ",\n";
+    }
+    json.append(componentStatistics.isEmpty() ? "}" : "\n  }").append("\n}\n");
+
+    try {
+      Files.write(Paths.get(path), json.toString().getBytes(UTF_8));
+    } catch (IOException e) {
+      messager.printMessage(
+          Diagnostic.Kind.WARNING, "Could not write Dagger statistics to " + path + ": " + e);
+    }
+  }
+
+  private static void appendMillis(StringBuilder json, Map<?, Long> nanos) {
+    Map<String, Long> millis = new LinkedHashMap<>();
+    nanos.forEach((key, value) -> millis.put(key.toString(), NANOSECONDS.toMillis(value)));
+    appendObject(json, millis);
+  }
+
+  private static void appendObject(StringBuilder json, Map<String, ? extends Number> values) {
+    json.append('{');
+    String separator = "";
+    for (Map.Entry<String, ? extends Number> entry : values.entrySet()) {
+      json.append(separator)
+          .append(jsonString(entry.getKey()))
+          .append(": ")
+          .append(entry.getValue());
+      separator = ", ";
+    }
+    json.append('}');
+  }
+
+  private static String jsonString(String value) {
+    StringBuilder string = new StringBuilder("\"");
+    for (char c : value.toCharArray()) {
+      switch (c) {
+        case '"':
+          string.append("\\\"");
+          break;
+        case '\\':
+          string.append("\\\\");
+          break;
+        default:
+          if (c < 0x20) {
+            string.append(String.format("\\u%04x", (int) c));
+          } else {
+            string.append(c);
+          }
+      }
+    }
+    return string.append('"').toString();
+  }
+
+  /** The statistics recorded for a single root component. */
+  private static final class ComponentStatistics {
+    final Map<ComponentPhase, Long> phaseNanos = new EnumMap<>(ComponentPhase.class);
+    final Map<String, Integer> bindingsPerComponent = new LinkedHashMap<>();
+    final Map<String, Map<String, Integer>> multibindingSizes = new LinkedHashMap<>();
+    int maxDependencyDepth;
+    int generatedTypes;
+    int generatedFields;
+    int generatedMethods;
 
+    void appendTo(StringBuilder json) {
+      Map<String, Long> phaseNanosByName = new LinkedHashMap<>();
+      phaseNanos.forEach(
+          (phase, nanos) ->
+              phaseNanosByName.put(UPPER_UNDERSCORE.to(LOWER_CAMEL, phase.name()), nanos));
+      json.append("{\"phaseMillis\": ");
+      appendMillis(json, phaseNanosByName);
+      json.append(", \"bindingsPerComponent\": ");
+      appendObject(json, bindingsPerComponent);
+      json.append(", \"maxDependencyDepth\": ").append(maxDependencyDepth);
+      json.append(", \"multibindingSizes\": {");
+      String separator = "";
+      for (Map.Entry<String, Map<String, Integer>> entry : multibindingSizes.entrySet()) {
+        json.append(separator).append(jsonString(entry.getKey())).append(": ");
+        appendObject(json, entry.getValue());
+        separator = ", ";
+      }
+      json.append('}');
+      json.append(", \"generatedTypes\": ").append(generatedTypes);
+      json.append(", \"generatedFields\": ").append(generatedFields);
+      json.append(", \"generatedMethods\": ").append(generatedMethods);
+      json.append('}');
+    }
   }
 }
@@ -26,16 +26,22 @@ import com.squareup.javapoet.CodeBlock;
 import com.squareup.javapoet.FieldSpec;
 import com.squareup.javapoet.TypeName;
 import dagger.internal.DoubleCheck;
+import dagger.internal.LockingMemoizedSentinel;
 import dagger.internal.MemoizedSentinel;
 
 /**
  * Defines a method body and return type for double checked locking of the given {@link
  * BindingExpression}.
+ *
+ * <p>If {@linkplain CompilerOptions#monitorFreeScoping() monitor-free scoping} is enabled, the
+ * field is initialized with a {@link LockingMemoizedSentinel} that is locked instead of {@code
+ * synchronized} on.
  */
 final class DoubleCheckedMethodImplementation extends BindingMethodImplementation {
 
   private final ComponentImplementation componentImplementation;
   private final ContributionBinding binding;
+  private final CompilerOptions compilerOptions;
   private final Supplier<String> fieldName = Suppliers.memoize(this::createField);
 
   DoubleCheckedMethodImplementation(
@@ -43,14 +49,19 @@ final class DoubleCheckedMethodImplementation extends BindingMethodImplementatio
       BindingRequest request,
       BindingExpression bindingExpression,
       DaggerTypes types,
-      ComponentImplementation componentImplementation) {
+      ComponentImplementation componentImplementation,
+      CompilerOptions compilerOptions) {
     super(resolvedBindings, request, bindingExpression, componentImplementation.name(), types);
     this.componentImplementation = componentImplementation;
     this.binding = resolvedBindings.contributionBinding();
+    this.compilerOptions = compilerOptions;
   }
 
   @Override
   CodeBlock implementation(Supplier<CodeBlock> simpleBindingExpression) {
+    if (compilerOptions.monitorFreeScoping()) {
+      return lockingImplementation(simpleBindingExpression);
+    }
     String fieldExpression = fieldName.get().equals("local") ? "this.local" : fieldName.get();
     return CodeBlock.builder()
         .addStatement("$T local = $L", TypeName.OBJECT, fieldExpression)
@@ -67,12 +78,44 @@ final class DoubleCheckedMethodImplementation extends BindingMethodImplementatio
         .build();
   }
 
+  private CodeBlock lockingImplementation(Supplier<CodeBlock> simpleBindingExpression) {
+    String fieldExpression = fieldName.get().equals("local") ? "this.local" : fieldName.get();
+    CodeBlock bindingExpression = simpleBindingExpression.get();
+    // Claiming the local's name as a field name keeps it from shadowing any field of the component,
+    // including those that bindingExpression refers to.
+    String sentinel = componentImplementation.getUniqueFieldName("sentinel");
+    return CodeBlock.builder()
+        .addStatement("$T local = $L", TypeName.OBJECT, fieldExpression)
+        .beginControlFlow("if (local instanceof $T)", LockingMemoizedSentinel.class)
+        .addStatement("$1T $2N = ($1T) local", LockingMemoizedSentinel.class, sentinel)
+        .addStatement("$N.lock()", sentinel)
+        .beginControlFlow("try")
+        .addStatement("local = $L", fieldExpression)
+        .beginControlFlow("if (local instanceof $T)", LockingMemoizedSentinel.class)
+        .addStatement("local = $L", bindingExpression)
+        .addStatement(
+            "$1L = $2T.reentrantCheck($1L, local)",
+            fieldExpression,
+            LockingMemoizedSentinel.class)
+        .endControlFlow()
+        .nextControlFlow("finally")
+        .addStatement("$N.unlock()", sentinel)
+        .endControlFlow()
+        .endControlFlow()
+        .addStatement("return ($T) local", returnType())
+        .build();
+  }
+
   private String createField() {
     String name = componentImplementation.getUniqueFieldName(BindingVariableNamer.name(binding));
     componentImplementation.addField(
         PRIVATE_METHOD_SCOPED_FIELD,
         FieldSpec.builder(TypeName.OBJECT, name, PRIVATE, VOLATILE)
-            .initializer("new $T()", MemoizedSentinel.class)
+            .initializer(
+                "new $T()",
+                compilerOptions.monitorFreeScoping()
+                    ? LockingMemoizedSentinel.class
+                    : MemoizedSentinel.class)
             .build());
     return name;
   }
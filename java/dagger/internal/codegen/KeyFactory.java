@@ -35,6 +35,8 @@ import static javax.lang.model.element.ElementKind.METHOD;
 
 import com.google.auto.common.MoreTypes;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
 import dagger.Binds;
 import dagger.BindsOptionalOf;
 import dagger.model.Key;
@@ -53,6 +55,7 @@ import java.util.concurrent.Executor;
 import java.util.stream.Stream;
 import javax.inject.Inject;
 import javax.inject.Provider;
+import javax.inject.Singleton;
 import javax.lang.model.element.AnnotationMirror;
 import javax.lang.model.element.ExecutableElement;
 import javax.lang.model.element.TypeElement;
@@ -61,10 +64,18 @@ import javax.lang.model.type.ExecutableType;
 import javax.lang.model.type.PrimitiveType;
 import javax.lang.model.type.TypeMirror;
 
-/** A factory for {@link Key}s. */
+/**
+ * A factory for {@link Key}s.
+ *
+ * <p>Every key returned by this factory is interned, so that equal keys created for the same
+ * processor run are usually the same instance and {@link Key#equals(Object)} can return on its
+ * identity check instead of comparing types.
+ */
+@Singleton // for the key interner
 final class KeyFactory {
   private final DaggerTypes types;
   private final DaggerElements elements;
+  private final Interner<Key> keys = Interners.newWeakInterner();
 
   @Inject
   KeyFactory(DaggerTypes types, DaggerElements elements) {
@@ -72,6 +83,11 @@ final class KeyFactory {
     this.elements = checkNotNull(elements);
   }
 
+  /** Returns the canonical instance of the key built by {@code builder}. */
+  private Key intern(Key.Builder builder) {
+    return keys.intern(builder.build());
+  }
+
   private TypeElement getClassElement(Class<?> cls) {
     return elements.getTypeElement(cls.getCanonicalName());
   }
@@ -115,11 +131,11 @@ final class KeyFactory {
     checkArgument(subcomponentBuilderMethod.getKind().equals(METHOD));
     ExecutableType resolvedMethod =
         asExecutable(types.asMemberOf(declaredContainer, subcomponentBuilderMethod));
-    return Key.builder(resolvedMethod.getReturnType()).build();
+    return intern(Key.builder(resolvedMethod.getReturnType()));
   }
 
   Key forSubcomponentBuilder(TypeMirror builderType) {
-    return Key.builder(builderType).build();
+    return intern(Key.builder(builderType));
   }
 
   Key forProvidesMethod(ExecutableElement method, TypeElement contributingModule) {
@@ -173,10 +189,10 @@ final class KeyFactory {
     Key key = forMethod(method, keyType);
     return contributionType.equals(ContributionType.UNIQUE)
         ? key
-        : key.toBuilder()
-            .multibindingContributionIdentifier(
-                new MultibindingContributionIdentifier(method, contributingModule))
-            .build();
+        : intern(
+            key.toBuilder()
+                .multibindingContributionIdentifier(
+                    new MultibindingContributionIdentifier(method, contributingModule)));
   }
 
   /**
@@ -240,36 +256,36 @@ final class KeyFactory {
   }
 
   Key forInjectConstructorWithResolvedType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type));
   }
 
   // TODO(ronshapiro): Remove these conveniences which are simple wrappers around Key.Builder
   Key forType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type));
   }
 
   Key forMembersInjectedType(TypeMirror type) {
-    return Key.builder(type).build();
+    return intern(Key.builder(type));
   }
 
   Key forQualifiedType(Optional<AnnotationMirror> qualifier, TypeMirror type) {
-    return Key.builder(boxPrimitives(type)).qualifier(qualifier).build();
+    return intern(Key.builder(boxPrimitives(type)).qualifier(qualifier));
   }
 
   Key forProductionExecutor() {
-    return Key.builder(getClassElement(Executor.class).asType())
-        .qualifier(SimpleAnnotationMirror.of(getClassElement(Production.class)))
-        .build();
+    return intern(
+        Key.builder(getClassElement(Executor.class).asType())
+            .qualifier(SimpleAnnotationMirror.of(getClassElement(Production.class))));
   }
 
   Key forProductionImplementationExecutor() {
-    return Key.builder(getClassElement(Executor.class).asType())
-        .qualifier(SimpleAnnotationMirror.of(getClassElement(ProductionImplementation.class)))
-        .build();
+    return intern(
+        Key.builder(getClassElement(Executor.class).asType())
+            .qualifier(SimpleAnnotationMirror.of(getClassElement(ProductionImplementation.class))));
   }
 
   Key forProductionComponentMonitor() {
-    return Key.builder(getClassElement(ProductionComponentMonitor.class).asType()).build();
+    return intern(Key.builder(getClassElement(ProductionComponentMonitor.class).asType()));
   }
 
   /**
@@ -321,9 +337,9 @@ final class KeyFactory {
       if (!mapType.isRawType()) {
         for (Class<?> frameworkClass : asList(Provider.class, Producer.class, Produced.class)) {
           if (mapType.valuesAreTypeOf(frameworkClass)) {
-            return key.toBuilder()
-                .type(mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass)))
-                .build();
+            return intern(
+                key.toBuilder()
+                    .type(mapOf(mapType.keyType(), mapType.unwrappedValueType(frameworkClass))));
           }
         }
       }
@@ -367,7 +383,7 @@ final class KeyFactory {
             types.getDeclaredType(
                 wrappingElement, mapType.unwrappedValueType(currentWrappingClass));
         return Optional.of(
-            possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType)).build());
+            intern(possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType))));
       }
     }
     return Optional.empty();
@@ -392,7 +408,7 @@ final class KeyFactory {
         }
         DeclaredType wrappedValueType = types.getDeclaredType(wrappingElement, mapType.valueType());
         return Optional.of(
-            possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType)).build());
+            intern(possibleMapKey.toBuilder().type(mapOf(mapType.keyType(), wrappedValueType))));
       }
     }
     return Optional.empty();
@@ -407,7 +423,7 @@ final class KeyFactory {
       SetType setType = SetType.from(key);
       if (!setType.isRawType() && setType.elementsAreTypeOf(wrappingClass)) {
         return Optional.of(
-            key.toBuilder().type(setOf(setType.unwrappedElementType(wrappingClass))).build());
+            intern(key.toBuilder().type(setOf(setType.unwrappedElementType(wrappingClass)))));
       }
     }
     return Optional.empty();
@@ -425,8 +441,8 @@ final class KeyFactory {
 
     TypeMirror optionalValueType = OptionalType.from(key).valueType();
     return Optional.of(
-        key.toBuilder()
-            .type(extractKeyType(getRequestKind(optionalValueType), optionalValueType))
-            .build());
+        intern(
+            key.toBuilder()
+                .type(extractKeyType(getRequestKind(optionalValueType), optionalValueType))));
   }
 }
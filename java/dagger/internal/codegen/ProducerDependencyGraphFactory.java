@@ -0,0 +1,170 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
+import static dagger.internal.codegen.ComponentImplementation.FieldSpecKind.PRODUCER_DEPENDENCIES_FIELD;
+import static dagger.internal.codegen.ComponentImplementation.MethodSpecKind.PRODUCER_DEPENDENCIES_METHOD;
+import static dagger.internal.codegen.ProducerFactoryGenerator.producerTokenConstruction;
+import static dagger.internal.codegen.TypeNames.PRODUCER_TOKEN;
+import static javax.lang.model.element.Modifier.FINAL;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+import static javax.lang.model.element.Modifier.STATIC;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.SetMultimap;
+import com.google.common.collect.TreeMultimap;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.FieldSpec;
+import com.squareup.javapoet.ParameterizedTypeName;
+import com.squareup.javapoet.TypeName;
+import dagger.model.BindingKind;
+import dagger.model.DependencyRequest;
+import dagger.model.Key;
+import dagger.producers.internal.ProducerDependencyGraph;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import javax.inject.Inject;
+
+/**
+ * Implements {@link ProducerDependencyGraph} for a root production component, so that monitors can
+ * tell which {@code @Produces} methods each {@code @Produces} method waits for.
+ *
+ * <p>Dependencies through other production bindings, such as multibindings, {@code @Binds} methods
+ * and optional bindings, are followed to the {@code @Produces} methods behind them. Provision
+ * bindings are not producers, so they are never part of the graph.
+ */
+final class ProducerDependencyGraphFactory {
+  private static final TypeName PRODUCER_DEPENDENCIES_TYPE =
+      ParameterizedTypeName.get(
+          ClassName.get(ImmutableSetMultimap.class), PRODUCER_TOKEN, PRODUCER_TOKEN);
+
+  private final DaggerElements elements;
+  private final CompilerOptions compilerOptions;
+
+  @Inject
+  ProducerDependencyGraphFactory(DaggerElements elements, CompilerOptions compilerOptions) {
+    this.elements = elements;
+    this.compilerOptions = compilerOptions;
+  }
+
+  /**
+   * Adds {@link ProducerDependencyGraph} to the supertypes of {@code componentImplementation}, and
+   * a static field with the dependencies that its {@code producerDependencies()} method returns.
+   */
+  void addProducerDependencyGraph(
+      BindingGraph graph, ComponentImplementation componentImplementation) {
+    componentImplementation.addSupertype(
+        elements.getTypeElement(ProducerDependencyGraph.class));
+    componentImplementation.claimMethodName("producerDependencies");
+
+    CodeBlock.Builder dependencies =
+        CodeBlock.builder()
+            .add(
+                "$T.<$T, $T>builder()",
+                ImmutableSetMultimap.class,
+                PRODUCER_TOKEN,
+                PRODUCER_TOKEN);
+    producerTokenDependencies(graph)
+        .forEach(
+            (producer, dependency) -> dependencies.add("\n.put($L, $L)", producer, dependency));
+    dependencies.add("\n.build()");
+
+    FieldSpec field =
+        FieldSpec.builder(
+                PRODUCER_DEPENDENCIES_TYPE,
+                componentImplementation.getUniqueFieldName("PRODUCER_DEPENDENCIES"),
+                PRIVATE,
+                STATIC,
+                FINAL)
+            .initializer(dependencies.build())
+            .build();
+    componentImplementation.addField(PRODUCER_DEPENDENCIES_FIELD, field);
+    componentImplementation.addMethod(
+        PRODUCER_DEPENDENCIES_METHOD,
+        methodBuilder("producerDependencies")
+            .addAnnotation(Override.class)
+            .addModifiers(PUBLIC)
+            .returns(PRODUCER_DEPENDENCIES_TYPE)
+            .addStatement("return $N", field)
+            .build());
+  }
+
+  /**
+   * Returns the expressions that create the producer tokens of each {@code @Produces} method in the
+   * component, mapped to those of the {@code @Produces} methods that it depends on. The expressions
+   * are sorted, so that the generated code doesn't depend on the order of the bindings in the
+   * graph.
+   */
+  private SetMultimap<CodeBlock, CodeBlock> producerTokenDependencies(BindingGraph graph) {
+    Comparator<CodeBlock> byCode = Comparator.comparing(CodeBlock::toString);
+    SetMultimap<CodeBlock, CodeBlock> tokenDependencies = TreeMultimap.create(byCode, byCode);
+    for (ResolvedBindings resolvedBindings : graph.contributionBindings().values()) {
+      for (ContributionBinding binding : resolvedBindings.contributionBindings()) {
+        if (!isProducesMethod(binding)) {
+          continue;
+        }
+        Set<Key> visitedKeys = new HashSet<>();
+        Set<ProductionBinding> dependencies = new LinkedHashSet<>();
+        for (DependencyRequest dependency : binding.dependencies()) {
+          addProducesMethods(graph, dependency.key(), visitedKeys, dependencies);
+        }
+        CodeBlock token = producerTokenConstruction((ProductionBinding) binding, compilerOptions);
+        for (ProductionBinding dependency : dependencies) {
+          tokenDependencies.put(token, producerTokenConstruction(dependency, compilerOptions));
+        }
+      }
+    }
+    return tokenDependencies;
+  }
+
+  /**
+   * Adds the {@code @Produces} method bindings for {@code key} to {@code producesMethods}, looking
+   * through any other production bindings for {@code key} to their dependencies.
+   */
+  private static void addProducesMethods(
+      BindingGraph graph,
+      Key key,
+      Set<Key> visitedKeys,
+      Set<ProductionBinding> producesMethods) {
+    if (!visitedKeys.add(key)) {
+      return;
+    }
+    ResolvedBindings resolvedBindings = graph.contributionBindings().get(key);
+    if (resolvedBindings == null) {
+      return;
+    }
+    for (ContributionBinding binding : resolvedBindings.contributionBindings()) {
+      if (isProducesMethod(binding)) {
+        producesMethods.add((ProductionBinding) binding);
+      } else if (binding.bindingType().equals(BindingType.PRODUCTION)) {
+        for (DependencyRequest dependency : binding.dependencies()) {
+          addProducesMethods(graph, dependency.key(), visitedKeys, producesMethods);
+        }
+      }
+    }
+  }
+
+  private static boolean isProducesMethod(ContributionBinding binding) {
+    return binding.bindingType().equals(BindingType.PRODUCTION)
+        && binding.kind().equals(BindingKind.PRODUCTION);
+  }
+}
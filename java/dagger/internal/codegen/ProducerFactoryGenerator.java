@@ -61,6 +61,7 @@ import dagger.model.DependencyRequest;
 import dagger.model.Key;
 import dagger.model.RequestKind;
 import dagger.producers.Producer;
+import dagger.producers.Produces;
 import dagger.producers.internal.AbstractProducesMethodProducer;
 import dagger.producers.internal.Producers;
 import java.util.Map;
@@ -162,7 +163,7 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
     constructorBuilder.addStatement(
         "super($N, $L, $N)",
         verifyNotNull(monitorParameterName[0]),
-        producerTokenConstruction(generatedTypeName, binding),
+        producerTokenConstruction(binding, compilerOptions),
         verifyNotNull(executorParameterName[0]));
 
     if (binding.requiresModuleInstance()) {
@@ -224,6 +225,16 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
         .addMethod(collectDependenciesBuilder.build())
         .addMethod(callProducesMethod.build());
 
+    if (binding.bindingElement().get().getAnnotation(Produces.class).inline()) {
+      factoryBuilder.addMethod(
+          methodBuilder("executesInline")
+              .addAnnotation(Override.class)
+              .addModifiers(PROTECTED)
+              .returns(boolean.class)
+              .addStatement("return true")
+              .build());
+    }
+
     gwtIncompatibleAnnotation(binding).ifPresent(factoryBuilder::addAnnotation);
 
     // TODO(gak): write a sensible toString
@@ -282,8 +293,12 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
         .toList();
   }
 
-  private CodeBlock producerTokenConstruction(
-      ClassName generatedTypeName, ProductionBinding binding) {
+  /**
+   * Returns an expression that creates the {@link dagger.producers.monitoring.ProducerToken} of the
+   * generated producer for {@code binding}, which must be a {@code @Produces} method binding.
+   */
+  static CodeBlock producerTokenConstruction(
+      ProductionBinding binding, CompilerOptions compilerOptions) {
     CodeBlock producerTokenArgs =
         compilerOptions.writeProducerNameInToken()
             ? CodeBlock.of(
@@ -292,7 +307,7 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
                     "%s#%s",
                     ClassName.get(binding.bindingTypeElement().get()),
                     binding.bindingElement().get().getSimpleName()))
-            : CodeBlock.of("$T.class", generatedTypeName);
+            : CodeBlock.of("$T.class", generatedClassNameForBinding(binding));
     return CodeBlock.of("$T.create($L)", PRODUCER_TOKEN, producerTokenArgs);
   }
 
@@ -438,9 +453,8 @@ final class ProducerFactoryGenerator extends SourceFileGenerator<ProductionBindi
     @Override
     CodeBlock futureCodeBlock() {
       return CodeBlock.of(
-          "$T.<$T>allAsList($L)",
-          FUTURES,
-          OBJECT,
+          "$T.allAsList($L)",
+          PRODUCERS,
           asyncDependencies
               .stream()
               .map(ProducerFactoryGenerator::dependencyFutureName)
@@ -97,8 +97,10 @@ abstract class SourceFileGenerator<T> {
                         .addMember("comments", "$S", GENERATED_COMMENTS)
                         .build());
     generatedAnnotation.ifPresent(typeSpecBuilder::addAnnotation);
+    TypeSpec generatedType = typeSpecBuilder.build();
+    generatedTypeBuilt(input, generatedType);
     JavaFile.Builder javaFileBuilder =
-        JavaFile.builder(generatedTypeName.packageName(), typeSpecBuilder.build())
+        JavaFile.builder(generatedTypeName.packageName(), generatedType)
             .skipJavaLangImports(true);
     if (!generatedAnnotation.isPresent()) {
       javaFileBuilder.addFileComment("Generated by Dagger ($L).", GENERATED_COMMENTS);
@@ -106,6 +108,9 @@ abstract class SourceFileGenerator<T> {
     return javaFileBuilder.build();
   }
 
+  /** Called with the complete type generated for {@code input} before it is written. */
+  void generatedTypeBuilt(T input, TypeSpec generatedType) {}
+
   /**
    * Implementations should return the {@link ClassName} for the top-level type to be generated.
    */
@@ -42,14 +42,16 @@ abstract class SpiModule {
       Types types,
       Elements elements,
       @ProcessingOptions Map<String, String> processingOptions,
-      DiagnosticReporterFactory diagnosticReporterFactory) {
+      DiagnosticReporterFactory diagnosticReporterFactory,
+      CompilerOptions compilerOptions) {
     return new BindingGraphPlugins(
         testingPlugins.orElseGet(SpiModule::loadPlugins),
         filer,
         types,
         elements,
         processingOptions,
-        diagnosticReporterFactory);
+        diagnosticReporterFactory,
+        compilerOptions);
   }
 
   private static ImmutableSet<BindingGraphPlugin> loadPlugins() {
@@ -0,0 +1,278 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.collect.Iterables.getOnlyElement;
+import static com.squareup.javapoet.MethodSpec.methodBuilder;
+import static dagger.internal.codegen.BindingRequest.bindingRequest;
+import static dagger.internal.codegen.ComponentImplementation.MethodSpecKind.PRIVATE_METHOD;
+import static dagger.internal.codegen.ComponentImplementation.MethodSpecKind.WARM_UP_METHOD;
+import static dagger.internal.codegen.DaggerStreams.toImmutableList;
+import static javax.lang.model.element.Modifier.PRIVATE;
+import static javax.lang.model.element.Modifier.PUBLIC;
+
+import com.google.auto.common.MoreTypes;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.squareup.javapoet.ClassName;
+import com.squareup.javapoet.CodeBlock;
+import com.squareup.javapoet.MethodSpec;
+import com.squareup.javapoet.TypeName;
+import com.squareup.javapoet.TypeSpec;
+import dagger.internal.ParallelInitialization;
+import dagger.model.DependencyRequest;
+import dagger.model.Key;
+import dagger.model.RequestKind;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import javax.lang.model.element.ExecutableElement;
+
+/**
+ * Implements the {@code warmUp(Executor)} method declared on a root component, which initializes
+ * all of the scoped provision bindings owned by the component with {@link ParallelInitialization}.
+ *
+ * <p>Scoped bindings are ordered so that every binding comes after the scoped bindings it
+ * (transitively) depends on through {@link RequestKind#INSTANCE} requests. Dependencies through
+ * {@code Provider} and {@code Lazy} requests don't have to be initialized first, which also means
+ * that the order is well defined even in the presence of dependency cycles.
+ */
+final class WarmUpMethodFactory {
+  /** The maximum number of cases in a single switch statement; see {@link SwitchingProviders}. */
+  private static final int MAX_CASES_PER_SWITCH = 100;
+
+  private static final String INDEX = "index";
+
+  private final BindingGraph graph;
+  private final ComponentImplementation componentImplementation;
+  private final ComponentBindingExpressions bindingExpressions;
+  private final DaggerTypes types;
+  private final Map<Key, ImmutableSet<Key>> scopedDependencies = new HashMap<>();
+
+  WarmUpMethodFactory(
+      BindingGraph graph,
+      ComponentImplementation componentImplementation,
+      ComponentBindingExpressions bindingExpressions,
+      DaggerTypes types) {
+    this.graph = checkNotNull(graph);
+    this.componentImplementation = checkNotNull(componentImplementation);
+    this.bindingExpressions = checkNotNull(bindingExpressions);
+    this.types = checkNotNull(types);
+  }
+
+  /**
+   * Adds the implementation of the component's {@code warmUp(Executor)} method and its helper
+   * methods to the component.
+   */
+  void addWarmUpMethod(ExecutableElement methodElement) {
+    MethodSpec.Builder warmUpMethod =
+        MethodSpec.overriding(
+            methodElement, MoreTypes.asDeclared(graph.componentTypeElement().asType()), types);
+    String executor = getOnlyElement(methodElement.getParameters()).getSimpleName().toString();
+
+    ImmutableList<Key> scopedKeys = scopedKeysInDependencyOrder();
+    if (!scopedKeys.isEmpty()) {
+      MethodSpec initializeMethod = initializeMethod(scopedKeys);
+      TypeSpec initializer =
+          TypeSpec.anonymousClassBuilder("")
+              .addSuperinterface(ParallelInitialization.Initializer.class)
+              .addMethod(
+                  methodBuilder("initialize")
+                      .addAnnotation(Override.class)
+                      .addModifiers(PUBLIC)
+                      .returns(TypeName.OBJECT)
+                      .addParameter(int.class, INDEX)
+                      .addStatement("return $N($L)", initializeMethod, INDEX)
+                      .build())
+              .build();
+      warmUpMethod.addStatement(
+          "$T.run($L, $L, $L)",
+          ParallelInitialization.class,
+          executor,
+          dependenciesArray(scopedKeys),
+          initializer);
+    }
+    componentImplementation.addMethod(WARM_UP_METHOD, warmUpMethod.build());
+  }
+
+  /** Returns the keys of all scoped bindings to initialize, each after its scoped dependencies. */
+  private ImmutableList<Key> scopedKeysInDependencyOrder() {
+    Set<Key> orderedKeys = new LinkedHashSet<>();
+    for (ResolvedBindings resolvedBindings : graph.contributionBindings().values()) {
+      if (isWarmUpBinding(resolvedBindings)) {
+        addInDependencyOrder(resolvedBindings.key(), orderedKeys, new HashSet<>());
+      }
+    }
+    return ImmutableList.copyOf(orderedKeys);
+  }
+
+  private void addInDependencyOrder(Key key, Set<Key> orderedKeys, Set<Key> visiting) {
+    if (orderedKeys.contains(key) || !visiting.add(key)) {
+      return;
+    }
+    for (Key dependency : scopedDependencies(key)) {
+      addInDependencyOrder(dependency, orderedKeys, visiting);
+    }
+    orderedKeys.add(key);
+  }
+
+  /**
+   * Returns the keys of the scoped bindings that must be initialized before the binding for {@code
+   * key}, found by following instance requests through unscoped bindings.
+   */
+  private ImmutableSet<Key> scopedDependencies(Key key) {
+    ImmutableSet<Key> cached = scopedDependencies.get(key);
+    if (cached != null) {
+      return cached;
+    }
+    ImmutableSet.Builder<Key> dependencies = ImmutableSet.builder();
+    Set<Key> visited = new HashSet<>();
+    Deque<Key> keysToVisit = new ArrayDeque<>();
+    addInstanceDependencies(graph.contributionBindings().get(key), keysToVisit);
+    while (!keysToVisit.isEmpty()) {
+      Key dependencyKey = keysToVisit.pop();
+      if (!visited.add(dependencyKey)) {
+        continue;
+      }
+      ResolvedBindings resolvedBindings = graph.contributionBindings().get(dependencyKey);
+      if (resolvedBindings == null) {
+        continue;
+      }
+      if (isWarmUpBinding(resolvedBindings)) {
+        dependencies.add(dependencyKey);
+      } else {
+        addInstanceDependencies(resolvedBindings, keysToVisit);
+      }
+    }
+    ImmutableSet<Key> result = dependencies.build();
+    scopedDependencies.put(key, result);
+    return result;
+  }
+
+  private static void addInstanceDependencies(
+      ResolvedBindings resolvedBindings, Deque<Key> keysToVisit) {
+    for (ContributionBinding binding : resolvedBindings.contributionBindings()) {
+      for (DependencyRequest dependency : binding.dependencies()) {
+        if (dependency.kind().equals(RequestKind.INSTANCE)) {
+          keysToVisit.push(dependency.key());
+        }
+      }
+    }
+  }
+
+  private boolean isWarmUpBinding(ResolvedBindings resolvedBindings) {
+    if (resolvedBindings.contributionBindings().size() != 1
+        || !resolvedBindings.owningComponent().equals(graph.componentDescriptor())) {
+      return false;
+    }
+    ContributionBinding binding = resolvedBindings.contributionBinding();
+    return binding.bindingType().equals(BindingType.PROVISION) && binding.scope().isPresent();
+  }
+
+  /** Returns an {@code int[][]} expression of the dependency indices of each binding. */
+  private CodeBlock dependenciesArray(ImmutableList<Key> scopedKeys) {
+    Map<Key, Integer> indices = new HashMap<>();
+    scopedKeys.forEach(key -> indices.put(key, indices.size()));
+    return CodeBlock.of(
+        "new int[][] {$L}",
+        scopedKeys.stream()
+            .map(
+                key ->
+                    CodeBlock.of(
+                        "{$L}",
+                        CodeBlocks.makeParametersCodeBlock(
+                            scopedDependencyIndices(key, indices))))
+            .collect(CodeBlocks.toParametersCodeBlock()));
+  }
+
+  private ImmutableList<CodeBlock> scopedDependencyIndices(Key key, Map<Key, Integer> indices) {
+    return scopedDependencies(key).stream()
+        .map(dependency -> CodeBlock.of("$L", indices.get(dependency)))
+        .collect(toImmutableList());
+  }
+
+  /**
+   * Returns the private method that initializes the binding for the key at the given index, which
+   * routes to partitions of at most {@link #MAX_CASES_PER_SWITCH} cases.
+   */
+  private MethodSpec initializeMethod(ImmutableList<Key> scopedKeys) {
+    ImmutableList.Builder<CodeBlock> cases = ImmutableList.builder();
+    for (int i = 0; i < scopedKeys.size(); i++) {
+      cases.add(switchCase(i, scopedKeys.get(i)));
+    }
+    List<List<CodeBlock>> partitions = Lists.partition(cases.build(), MAX_CASES_PER_SWITCH);
+    String methodName = componentImplementation.getUniqueMethodName("warmUpBinding");
+    if (partitions.size() == 1) {
+      return addInitializeMethod(methodName, getOnlyElement(partitions));
+    }
+
+    MethodSpec.Builder routerMethod =
+        initializeMethodBuilder(methodName)
+            .beginControlFlow("switch ($L / $L)", INDEX, MAX_CASES_PER_SWITCH);
+    for (int i = 0; i < partitions.size(); i++) {
+      MethodSpec partition =
+          addInitializeMethod(
+              componentImplementation.getUniqueMethodName(methodName), partitions.get(i));
+      routerMethod.addStatement("case $L: return $N($L)", i, partition, INDEX);
+    }
+    routerMethod
+        .addStatement("default: throw new $T($L)", AssertionError.class, INDEX)
+        .endControlFlow();
+    MethodSpec method = routerMethod.build();
+    componentImplementation.addMethod(PRIVATE_METHOD, method);
+    return method;
+  }
+
+  private MethodSpec addInitializeMethod(String methodName, List<CodeBlock> cases) {
+    MethodSpec method =
+        initializeMethodBuilder(methodName)
+            .beginControlFlow("switch ($L)", INDEX)
+            .addCode(CodeBlocks.concat(cases))
+            .addStatement("default: throw new $T($L)", AssertionError.class, INDEX)
+            .endControlFlow()
+            .build();
+    componentImplementation.addMethod(PRIVATE_METHOD, method);
+    return method;
+  }
+
+  private static MethodSpec.Builder initializeMethodBuilder(String methodName) {
+    return methodBuilder(methodName)
+        .addModifiers(PRIVATE)
+        .returns(TypeName.OBJECT)
+        .addParameter(int.class, INDEX);
+  }
+
+  private CodeBlock switchCase(int index, Key key) {
+    ClassName requestingClass = componentImplementation.name();
+    return CodeBlock.builder()
+        .add("case $L: // $L\n", index, key)
+        .addStatement(
+            "return $L",
+            bindingExpressions
+                .getDependencyExpression(bindingRequest(key, RequestKind.INSTANCE), requestingClass)
+                .box(types)
+                .codeBlock())
+        .build();
+  }
+}
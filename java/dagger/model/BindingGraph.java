@@ -22,10 +22,13 @@ import static com.google.common.graph.Graphs.inducedSubgraph;
 import static com.google.common.graph.Graphs.reachableNodes;
 import static com.google.common.graph.Graphs.transpose;
 import static dagger.internal.codegen.DaggerStreams.instancesOf;
+import static dagger.internal.codegen.DaggerStreams.toImmutableMap;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSet;
 import static dagger.internal.codegen.DaggerStreams.toImmutableSetMultimap;
 
 import com.google.auto.value.AutoValue;
+import com.google.auto.value.extension.memoized.Memoized;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSetMultimap;
 import com.google.common.graph.EndpointPair;
@@ -67,6 +70,12 @@ import javax.lang.model.element.TypeElement;
  * ChildFactoryMethodEdge subcomponent factory methods}, the source node is the component node for
  * the parent.
  *
+ * <h3>Lookups</h3>
+ *
+ * <p>The methods that look up bindings, component nodes or dependency edges by key, component or
+ * dependency request use indexes that are built the first time they are needed, so plugins can
+ * call them for every node in the graph in linear total time.
+ *
  * <p><b>Note that this API is experimental and will change.</b>
  */
 @AutoValue
@@ -93,9 +102,12 @@ public abstract class BindingGraph {
 
   /** Returns the bindings for a key. */
   public final ImmutableSet<Binding> bindings(Key key) {
-    return nodeStream(Binding.class)
-        .filter(binding -> binding.key().equals(key))
-        .collect(toImmutableSet());
+    return bindingsByKey().get(key);
+  }
+
+  @Memoized
+  ImmutableSetMultimap<Key, Binding> bindingsByKey() {
+    return nodeStream(Binding.class).collect(toImmutableSetMultimap(Binding::key, node -> node));
   }
 
   /** Returns the nodes that represent missing bindings. */
@@ -110,16 +122,25 @@ public abstract class BindingGraph {
 
   /** Returns the component node for a component. */
   public final Optional<ComponentNode> componentNode(ComponentPath component) {
+    return Optional.ofNullable(componentNodesByPath().get(component));
+  }
+
+  @Memoized
+  ImmutableMap<ComponentPath, ComponentNode> componentNodesByPath() {
     return nodeStream(ComponentNode.class)
-        .filter(node -> node.componentPath().equals(component))
-        .findFirst();
+        .collect(toImmutableMap(ComponentNode::componentPath, node -> node));
   }
 
   /** Returns the component nodes for a component. */
   public final ImmutableSet<ComponentNode> componentNodes(TypeElement component) {
+    return componentNodesByElement().get(component);
+  }
+
+  @Memoized
+  ImmutableSetMultimap<TypeElement, ComponentNode> componentNodesByElement() {
     return nodeStream(ComponentNode.class)
-        .filter(node -> node.componentPath().currentComponent().equals(component))
-        .collect(toImmutableSet());
+        .collect(
+            toImmutableSetMultimap(node -> node.componentPath().currentComponent(), node -> node));
   }
 
   /** Returns the component node for the root component. */
@@ -132,6 +153,11 @@ public abstract class BindingGraph {
 
   /** Returns the dependency edges. */
   public final ImmutableSet<DependencyEdge> dependencyEdges() {
+    return dependencyEdgeSet();
+  }
+
+  @Memoized
+  ImmutableSet<DependencyEdge> dependencyEdgeSet() {
     return dependencyEdgeStream().collect(toImmutableSet());
   }
 
@@ -150,9 +176,13 @@ public abstract class BindingGraph {
 
   /** Returns the dependency edges for a dependency request. */
   public final ImmutableSet<DependencyEdge> dependencyEdges(DependencyRequest dependencyRequest) {
-    return dependencyEdgeStream()
-        .filter(edge -> edge.dependencyRequest().equals(dependencyRequest))
-        .collect(toImmutableSet());
+    return dependencyEdgesByRequest().get(dependencyRequest);
+  }
+
+  @Memoized
+  ImmutableSetMultimap<DependencyRequest, DependencyEdge> dependencyEdgesByRequest() {
+    return dependencyEdgeSet().stream()
+        .collect(toImmutableSetMultimap(DependencyEdge::dependencyRequest, edge -> edge));
   }
 
   /**
@@ -172,12 +202,17 @@ public abstract class BindingGraph {
    * edge's source node is a component node.
    */
   public final ImmutableSet<DependencyEdge> entryPointEdges() {
+    return entryPointEdgeSet();
+  }
+
+  @Memoized
+  ImmutableSet<DependencyEdge> entryPointEdgeSet() {
     return entryPointEdgeStream().collect(toImmutableSet());
   }
 
   /** Returns the binding or missing binding nodes that directly satisfy entry points. */
   public final ImmutableSet<MaybeBinding> entryPointBindings() {
-    return entryPointEdgeStream()
+    return entryPointEdgeSet().stream()
         .map(edge -> (MaybeBinding) network().incidentNodes(edge).target())
         .collect(toImmutableSet());
   }
@@ -198,14 +233,15 @@ public abstract class BindingGraph {
     return entryPointEdges;
   }
 
-  // TODO(dpb): Make public. Cache.
-  private ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
+  // TODO(dpb): Make public.
+  @Memoized
+  ImmutableNetwork<Node, DependencyEdge> dependencyGraph() {
     MutableNetwork<Node, DependencyEdge> dependencyGraph =
         NetworkBuilder.from(network())
             .expectedNodeCount(network().nodes().size())
-            .expectedEdgeCount((int) dependencyEdgeStream().count())
+            .expectedEdgeCount(dependencyEdgeSet().size())
             .build();
-    dependencyEdgeStream()
+    dependencyEdgeSet()
         .forEach(
             edge -> {
               EndpointPair<Node> endpoints = network().incidentNodes(edge);
@@ -227,7 +263,7 @@ public abstract class BindingGraph {
   }
 
   private Stream<DependencyEdge> entryPointEdgeStream() {
-    return dependencyEdgeStream().filter(DependencyEdge::isEntryPoint);
+    return dependencyEdgeSet().stream().filter(DependencyEdge::isEntryPoint);
   }
 
   /**
@@ -94,8 +94,8 @@ public abstract class Key {
   // types use Key, their equality is dependant on Key's. Inserting the check removed Key.equals()
   // from the profile.
   // The main equality bottleneck in calculating the equality is in MoreTypes.equivalence()'s
-  // equality checker. It's possible that we can avoid this by tuning that method. Perhaps we can
-  // also avoid the issue entirely by interning all Keys
+  // equality checker. The processor's KeyFactory interns the keys it creates, so that equal keys
+  // are usually identical and the identity check below avoids it.
   // TODO(ronshapiro): consider creating an AutoValue extension that can generate this code on its
   // own
   @Override
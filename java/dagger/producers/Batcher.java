@@ -0,0 +1,207 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.Futures.addCallback;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import dagger.internal.Beta;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coalesces single-key lookups from many concurrent producers into batched calls to a backend.
+ *
+ * <p>A {@code Batcher} is meant to be shared by the production components that serve concurrent
+ * requests, for example by binding it as a singleton in a parent component. Each {@linkplain
+ * Produces producer method} asks for the one key it needs, and the batcher calls the batch function
+ * once for all of the keys that were asked for within a window:
+ *
+ * <pre><code>
+ *   {@literal @}Produces {@literal ListenableFuture<UserProfile>} profile(
+ *       UserId userId, {@literal Batcher<UserId, UserProfile>} profiles) {
+ *     return profiles.get(userId);
+ *   }
+ * </code></pre>
+ *
+ * <p>A batch is sent when it reaches {@code maxBatchSize} keys, or when {@code window} has passed
+ * since its first key was added, whichever comes first. A key that is asked for more than once
+ * while a batch is open is only looked up once.
+ *
+ * <p>If the batch function fails, every key in the batch fails with the same exception. If it
+ * succeeds but has no value for a key, that key fails with an {@link IllegalStateException}.
+ * Each call to {@link #get} returns its own future, so cancelling it, for example because the
+ * component that asked for the key was cancelled, cancels neither the batch nor any other caller's
+ * future for the same key.
+ */
+@Beta
+public final class Batcher<K, V> {
+  private final AsyncFunction<? super Set<K>, ? extends Map<K, V>> batchFunction;
+  private final int maxBatchSize;
+  private final long windowNanos;
+  private final ScheduledExecutorService scheduler;
+
+  /** The batch that keys are currently added to, or null if there is none. Guarded by this. */
+  private Batch pendingBatch;
+
+  private Batcher(
+      AsyncFunction<? super Set<K>, ? extends Map<K, V>> batchFunction,
+      int maxBatchSize,
+      long windowNanos,
+      ScheduledExecutorService scheduler) {
+    this.batchFunction = batchFunction;
+    this.maxBatchSize = maxBatchSize;
+    this.windowNanos = windowNanos;
+    this.scheduler = scheduler;
+  }
+
+  /**
+   * Returns a batcher that calls {@code batchFunction} with batches of at most {@code maxBatchSize}
+   * keys, holding each batch open for at most {@code window} before sending it on {@code
+   * scheduler}.
+   */
+  public static <K, V> Batcher<K, V> create(
+      AsyncFunction<? super Set<K>, ? extends Map<K, V>> batchFunction,
+      int maxBatchSize,
+      long window,
+      TimeUnit unit,
+      ScheduledExecutorService scheduler) {
+    checkArgument(maxBatchSize > 0, "maxBatchSize must be positive: %s", maxBatchSize);
+    checkArgument(window > 0, "window must be positive: %s", window);
+    return new Batcher<K, V>(
+        checkNotNull(batchFunction), maxBatchSize, unit.toNanos(window), checkNotNull(scheduler));
+  }
+
+  /**
+   * Returns a future for the value of {@code key}, which is looked up with other keys. Cancelling
+   * the returned future does not affect the lookup.
+   *
+   * @throws RejectedExecutionException if {@code key} would start a new batch and the scheduler
+   *     rejects the task that sends it once its window has passed
+   */
+  public ListenableFuture<V> get(K key) {
+    checkNotNull(key);
+    Batch fullBatch = null;
+    SettableFuture<V> future;
+    synchronized (this) {
+      if (pendingBatch == null) {
+        final Batch batch = new Batch();
+        // Only publish the batch once its timeout is scheduled. If the scheduler rejects the
+        // timeout, no batch is left behind that nothing would ever send.
+        batch.timeout =
+            scheduler.schedule(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    sendIfPending(batch);
+                  }
+                },
+                windowNanos,
+                TimeUnit.NANOSECONDS);
+        pendingBatch = batch;
+      }
+      future = pendingBatch.futures.get(key);
+      if (future == null) {
+        future = SettableFuture.create();
+        pendingBatch.futures.put(key, future);
+        if (pendingBatch.futures.size() >= maxBatchSize) {
+          fullBatch = pendingBatch;
+          pendingBatch = null;
+        }
+      }
+    }
+    if (fullBatch != null) {
+      fullBatch.timeout.cancel(false);
+      fullBatch.send();
+    }
+    return Futures.nonCancellationPropagating(future);
+  }
+
+  private void sendIfPending(Batch batch) {
+    synchronized (this) {
+      if (pendingBatch != batch) {
+        // The batch filled up and was sent before its window passed.
+        return;
+      }
+      pendingBatch = null;
+    }
+    batch.send();
+  }
+
+  /**
+   * The keys that will be looked up in one call to the batch function. Once a batch is no longer
+   * the {@linkplain #pendingBatch pending batch}, it is owned by the thread that sends it.
+   */
+  private final class Batch {
+    final Map<K, SettableFuture<V>> futures = new LinkedHashMap<K, SettableFuture<V>>();
+    ScheduledFuture<?> timeout;
+
+    void send() {
+      ListenableFuture<? extends Map<K, V>> results;
+      try {
+        results = batchFunction.apply(ImmutableSet.copyOf(futures.keySet()));
+      } catch (Throwable t) {
+        results = Futures.immediateFailedFuture(t);
+      }
+      if (results == null) {
+        results =
+            Futures.immediateFailedFuture(
+                new NullPointerException("batch function returned a null future"));
+      }
+      addCallback(
+          results,
+          new FutureCallback<Map<K, V>>() {
+            @Override
+            public void onSuccess(Map<K, V> values) {
+              for (Map.Entry<K, SettableFuture<V>> entry : futures.entrySet()) {
+                V value = values == null ? null : values.get(entry.getKey());
+                if (value == null) {
+                  entry
+                      .getValue()
+                      .setException(
+                          new IllegalStateException(
+                              "batch function returned no value for " + entry.getKey()));
+                } else {
+                  entry.getValue().set(value);
+                }
+              }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              for (SettableFuture<V> future : futures.values()) {
+                future.setException(t);
+              }
+            }
+          },
+          directExecutor());
+    }
+  }
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.ImmutableSetMultimap;
+import com.google.common.collect.MapMaker;
+import com.google.common.collect.SetMultimap;
+import dagger.internal.Beta;
+import dagger.producers.internal.ProducerDependencyGraph;
+import dagger.producers.monitoring.ProducerToken;
+import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * An executor for {@linkplain Produces producer methods} that runs the tasks of producers on the
+ * critical path of their component first.
+ *
+ * <p>Each producer's priority is the length of the longest chain of producers that depend on it,
+ * so a producer that many later stages are waiting for jumps ahead of one whose result goes
+ * straight to an entry point. Tasks of the same priority run in the order they were submitted.
+ *
+ * <p>This executor doesn't have threads of its own. It queues tasks by priority and, for each one,
+ * submits a task to the delegate executor that runs the highest-priority task queued at that time.
+ * Reordering only happens when the delegate has a backlog, which is when it matters.
+ *
+ * <p>Priorities are computed from the dependencies that production components export when they are
+ * compiled with {@code -Adagger.experimentalProducerDependencyGraph=enabled}. To use this executor,
+ * bind it as the {@link Production @Production} executor and contribute its {@linkplain
+ * #monitorFactory() monitor factory}, which reads those dependencies from each component:
+ *
+ * <pre><code>
+ *   {@literal @}Module
+ *   final class ExecutorModule {
+ *     private static final CriticalPathExecutor EXECUTOR =
+ *         CriticalPathExecutor.create(Executors.newFixedThreadPool(8));
+ *
+ *     {@literal @}Provides {@literal @}Production static Executor executor() {
+ *       return EXECUTOR;
+ *     }
+ *
+ *     {@literal @}Provides {@literal @}IntoSet
+ *     static ProductionComponentMonitor.Factory criticalPath() {
+ *       return EXECUTOR.monitorFactory();
+ *     }
+ *   }
+ * </code></pre>
+ *
+ * <p>Tasks of producers in components that don't export their dependencies have the lowest
+ * priority.
+ */
+@Beta
+public final class CriticalPathExecutor implements ProducerTokenExecutor {
+  private final Executor delegate;
+  private final PriorityBlockingQueue<PrioritizedTask> tasks =
+      new PriorityBlockingQueue<PrioritizedTask>();
+  private final AtomicLong sequence = new AtomicLong();
+  private final ConcurrentMap<ProducerToken, Integer> priorities =
+      new ConcurrentHashMap<ProducerToken, Integer>();
+
+  /**
+   * The dependency graphs whose priorities have been computed. Components of the same type share a
+   * graph, so this is checked by identity.
+   */
+  private final Set<Object> registeredGraphs =
+      Collections.newSetFromMap(new MapMaker().weakKeys().<Object, Boolean>makeMap());
+
+  private final Runnable runHighestPriorityTask =
+      new Runnable() {
+        @Override
+        public void run() {
+          PrioritizedTask task = tasks.poll();
+          if (task != null) {
+            task.task.run();
+          }
+        }
+      };
+
+  private final ProductionComponentMonitor.Factory monitorFactory =
+      new ProductionComponentMonitor.Factory() {
+        @Override
+        public ProductionComponentMonitor create(Object component) {
+          if (component instanceof ProducerDependencyGraph) {
+            register(((ProducerDependencyGraph) component).producerDependencies());
+          }
+          return ProductionComponentMonitor.noOp();
+        }
+      };
+
+  private CriticalPathExecutor(Executor delegate) {
+    this.delegate = delegate;
+  }
+
+  /** Returns an executor that runs tasks on {@code delegate} in order of priority. */
+  public static CriticalPathExecutor create(Executor delegate) {
+    return new CriticalPathExecutor(checkNotNull(delegate));
+  }
+
+  /**
+   * Returns a monitor factory that reads the dependencies between the producers of each component
+   * that it is installed in. It doesn't monitor anything.
+   */
+  public ProductionComponentMonitor.Factory monitorFactory() {
+    return monitorFactory;
+  }
+
+  @Override
+  public void execute(Runnable task) {
+    execute(task, null);
+  }
+
+  @Override
+  public void execute(Runnable task, @NullableDecl ProducerToken token) {
+    Integer priority = token == null ? null : priorities.get(token);
+    PrioritizedTask prioritizedTask =
+        new PrioritizedTask(
+            checkNotNull(task), priority == null ? 0 : priority, sequence.getAndIncrement());
+    tasks.add(prioritizedTask);
+    try {
+      delegate.execute(runHighestPriorityTask);
+    } catch (RejectedExecutionException e) {
+      // If the task is no longer queued, a runner for an earlier task has already taken it, so the
+      // task was accepted after all.
+      if (tasks.remove(prioritizedTask)) {
+        throw e;
+      }
+    }
+  }
+
+  private void register(ImmutableSetMultimap<ProducerToken, ProducerToken> dependencies) {
+    if (!registeredGraphs.add(dependencies)) {
+      return;
+    }
+    SetMultimap<ProducerToken, ProducerToken> dependents = HashMultimap.create();
+    for (Map.Entry<ProducerToken, ProducerToken> edge : dependencies.entries()) {
+      dependents.put(edge.getValue(), edge.getKey());
+    }
+    Map<ProducerToken, Integer> heights = new HashMap<ProducerToken, Integer>();
+    for (ProducerToken token : dependents.keySet()) {
+      height(token, dependents, heights);
+    }
+    for (Map.Entry<ProducerToken, Integer> height : heights.entrySet()) {
+      // The same producer method may be in components of different types; keep the highest.
+      Integer previous;
+      do {
+        previous = priorities.putIfAbsent(height.getKey(), height.getValue());
+      } while (previous != null
+          && previous < height.getValue()
+          && !priorities.replace(height.getKey(), previous, height.getValue()));
+    }
+  }
+
+  /** Returns the length of the longest chain of producers that depend on {@code token}. */
+  private static int height(
+      ProducerToken token,
+      SetMultimap<ProducerToken, ProducerToken> dependents,
+      Map<ProducerToken, Integer> heights) {
+    Integer height = heights.get(token);
+    if (height != null) {
+      return height;
+    }
+    // Guard against cycles, which a valid graph doesn't have.
+    heights.put(token, 0);
+    int max = 0;
+    for (ProducerToken dependent : dependents.get(token)) {
+      max = Math.max(max, height(dependent, dependents, heights) + 1);
+    }
+    heights.put(token, max);
+    return max;
+  }
+
+  private static final class PrioritizedTask implements Comparable<PrioritizedTask> {
+    final Runnable task;
+    final int priority;
+    final long sequence;
+
+    PrioritizedTask(Runnable task, int priority, long sequence) {
+      this.task = task;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public int compareTo(PrioritizedTask other) {
+      if (priority != other.priority) {
+        return priority > other.priority ? -1 : 1;
+      }
+      return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+import com.google.common.base.Ticker;
+import com.google.common.util.concurrent.ListenableFuture;
+import dagger.internal.Beta;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time after which the result of a {@linkplain ProductionComponent production component}
+ * is no longer wanted.
+ *
+ * <p>A deadline is usually created when a request arrives and bound into the component that serves
+ * it with {@link dagger.BindsInstance @BindsInstance}, so that {@linkplain Produces producer
+ * methods} can pass the {@linkplain #remaining remaining time} on to the backends that they call:
+ *
+ * <pre><code>
+ *   Deadline deadline = Deadline.after(200, MILLISECONDS);
+ *   MyComponent component = DaggerMyComponent.builder().deadline(deadline).build();
+ *   {@literal ListenableFuture<Response>} response =
+ *       deadline.cancelAtDeadline(component.response(), scheduler);
+ * </code></pre>
+ *
+ * <p>Cancelling an entry point's future cancels the whole component, so when the deadline passes,
+ * {@link #cancelAtDeadline cancelAtDeadline} stops all of the component's producers: those that are
+ * running are cancelled and interrupted, and those that haven't started yet never start.
+ */
+@Beta
+public final class Deadline {
+  private final Ticker ticker;
+  private final long deadlineNanos;
+
+  private Deadline(Ticker ticker, long deadlineNanos) {
+    this.ticker = ticker;
+    this.deadlineNanos = deadlineNanos;
+  }
+
+  /** Returns a deadline that expires after {@code duration} from now. */
+  public static Deadline after(long duration, TimeUnit unit) {
+    return after(duration, unit, Ticker.systemTicker());
+  }
+
+  static Deadline after(long duration, TimeUnit unit, Ticker ticker) {
+    checkNotNull(unit);
+    return new Deadline(checkNotNull(ticker), ticker.read() + unit.toNanos(duration));
+  }
+
+  /** Returns the time left until this deadline expires, or zero if it has expired. */
+  public long remaining(TimeUnit unit) {
+    return unit.convert(Math.max(0, deadlineNanos - ticker.read()), NANOSECONDS);
+  }
+
+  /** Returns true if this deadline has expired. */
+  public boolean isExpired() {
+    return deadlineNanos - ticker.read() <= 0;
+  }
+
+  /**
+   * Cancels {@code future}, interrupting it if it is running, if it is not done when this deadline
+   * expires. If {@code future} is an entry point of a production component, the whole component is
+   * cancelled.
+   *
+   * @return {@code future}
+   */
+  public <T> ListenableFuture<T> cancelAtDeadline(
+      final ListenableFuture<T> future, ScheduledExecutorService scheduler) {
+    checkNotNull(scheduler);
+    if (future.isDone()) {
+      return future;
+    }
+    long remainingNanos = deadlineNanos - ticker.read();
+    if (remainingNanos <= 0) {
+      future.cancel(true);
+      return future;
+    }
+    final ScheduledFuture<?> expiry =
+        scheduler.schedule(
+            new Runnable() {
+              @Override
+              public void run() {
+                future.cancel(true);
+              }
+            },
+            remainingNanos,
+            NANOSECONDS);
+    future.addListener(
+        new Runnable() {
+          @Override
+          public void run() {
+            expiry.cancel(false);
+          }
+        },
+        directExecutor());
+    return future;
+  }
+
+  @Override
+  public String toString() {
+    return "Deadline[remaining=" + remaining(NANOSECONDS) + "ns]";
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+import static com.google.common.base.Preconditions.checkState;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import dagger.internal.Beta;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * A sequence of elements that are produced over time, for {@linkplain Produces producer methods}
+ * whose consumers can make use of partial results.
+ *
+ * <p>A producer method that returns a {@code ProducerStream} completes as soon as it returns the
+ * stream, so producers that depend on it are started right away and can {@linkplain #addListener
+ * consume elements as they arrive}, instead of waiting for the slowest part of the result. Streams
+ * contributed to a set multibinding can be combined with {@link #merge}:
+ *
+ * <pre><code>
+ *   {@literal @}Produces {@literal @}IntoSet
+ *   {@literal ProducerStream<Result>} webResults(Query query) {
+ *     return ProducerStream.fromFutures(webBackend.search(query));
+ *   }
+ *
+ *   {@literal @}Produces {@literal ProducerStream<Result>} results(
+ *       {@literal Set<ProducerStream<Result>>} resultStreams) {
+ *     return ProducerStream.merge(resultStreams);
+ *   }
+ * </code></pre>
+ *
+ * <p>A stream buffers the elements it has emitted, so a listener that is added late still receives
+ * every element. Cancelling a production component does not stop its streams.
+ *
+ * @param <T> the type of the elements
+ */
+@Beta
+public final class ProducerStream<T> {
+  private static final Logger logger = Logger.getLogger(ProducerStream.class.getName());
+
+  /** Receives the elements of a stream, in order, followed by exactly one completion call. */
+  public interface Listener<T> {
+    /** Called with each element of the stream. */
+    void onElement(T element);
+
+    /** Called after the last element if the stream completes normally. */
+    void onComplete();
+
+    /** Called after the last element if the stream fails. */
+    void onFailure(Throwable cause);
+  }
+
+  // All guarded by this.
+  private final List<T> elements = new ArrayList<T>();
+  private final List<Subscription> subscriptions = new ArrayList<Subscription>();
+  private boolean done;
+  @NullableDecl private Throwable failure;
+
+  private ProducerStream() {}
+
+  /** Returns a new stream, whose elements are provided by calls to {@link #emit}. */
+  public static <T> ProducerStream<T> create() {
+    return new ProducerStream<T>();
+  }
+
+  /**
+   * Returns a stream of the values of {@code futures}, in the order that they complete. The stream
+   * fails if any of the futures fails.
+   */
+  public static <T> ProducerStream<T> fromFutures(
+      Iterable<? extends ListenableFuture<? extends T>> futures) {
+    final ProducerStream<T> stream = create();
+    ImmutableList<? extends ListenableFuture<? extends T>> futureList =
+        ImmutableList.copyOf(futures);
+    final AtomicInteger remaining = new AtomicInteger(futureList.size());
+    if (futureList.isEmpty()) {
+      stream.complete();
+    }
+    for (ListenableFuture<? extends T> future : futureList) {
+      Futures.addCallback(
+          future,
+          new FutureCallback<T>() {
+            @Override
+            public void onSuccess(T value) {
+              if (value == null) {
+                stream.finish(new NullPointerException("A future in the stream produced null"));
+                return;
+              }
+              stream.emitIfOpen(value);
+              if (remaining.decrementAndGet() == 0) {
+                stream.finish(null);
+              }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+              stream.finish(t);
+            }
+          },
+          directExecutor());
+    }
+    return stream;
+  }
+
+  /**
+   * Returns a stream of the elements of all of {@code streams}, in the order that they are emitted.
+   * The stream fails if any of the streams fails.
+   */
+  public static <T> ProducerStream<T> merge(
+      Iterable<? extends ProducerStream<? extends T>> streams) {
+    final ProducerStream<T> merged = create();
+    ImmutableList<? extends ProducerStream<? extends T>> streamList = ImmutableList.copyOf(streams);
+    final AtomicInteger remaining = new AtomicInteger(streamList.size());
+    if (streamList.isEmpty()) {
+      merged.complete();
+    }
+    for (ProducerStream<? extends T> stream : streamList) {
+      stream.addListener(
+          new Listener<T>() {
+            @Override
+            public void onElement(T element) {
+              merged.emitIfOpen(element);
+            }
+
+            @Override
+            public void onComplete() {
+              if (remaining.decrementAndGet() == 0) {
+                merged.finish(null);
+              }
+            }
+
+            @Override
+            public void onFailure(Throwable cause) {
+              merged.finish(cause);
+            }
+          },
+          directExecutor());
+    }
+    return merged;
+  }
+
+  /**
+   * Adds an element to the end of this stream.
+   *
+   * @throws IllegalStateException if this stream has completed or failed
+   */
+  public void emit(T element) {
+    checkNotNull(element);
+    synchronized (this) {
+      checkState(!done, "%s has already completed", this);
+      elements.add(element);
+    }
+    signalSubscriptions();
+  }
+
+  /**
+   * Completes this stream normally. Does nothing if this stream has already completed or failed.
+   */
+  public void complete() {
+    finish(null);
+  }
+
+  /**
+   * Fails this stream with {@code cause}. Does nothing if this stream has already completed or
+   * failed.
+   */
+  public void fail(Throwable cause) {
+    finish(checkNotNull(cause));
+  }
+
+  /**
+   * Adds a listener that will be called on {@code executor} with each element of this stream,
+   * including those that were emitted before it was added. Calls to one listener are never
+   * concurrent.
+   */
+  public void addListener(Listener<? super T> listener, Executor executor) {
+    Subscription subscription = new Subscription(checkNotNull(listener), checkNotNull(executor));
+    synchronized (this) {
+      subscriptions.add(subscription);
+    }
+    subscription.signal();
+  }
+
+  /** Returns a future for all of the elements of this stream, which completes with the stream. */
+  public ListenableFuture<List<T>> toList() {
+    final SettableFuture<List<T>> future = SettableFuture.create();
+    addListener(
+        new Listener<T>() {
+          final ImmutableList.Builder<T> elements = ImmutableList.builder();
+
+          @Override
+          public void onElement(T element) {
+            elements.add(element);
+          }
+
+          @Override
+          public void onComplete() {
+            future.set(elements.build());
+          }
+
+          @Override
+          public void onFailure(Throwable cause) {
+            future.setException(cause);
+          }
+        },
+        directExecutor());
+    return future;
+  }
+
+  /** Emits {@code element} unless this stream has already failed. */
+  private void emitIfOpen(T element) {
+    synchronized (this) {
+      if (done) {
+        return;
+      }
+      elements.add(element);
+    }
+    signalSubscriptions();
+  }
+
+  private void finish(@NullableDecl Throwable cause) {
+    synchronized (this) {
+      if (done) {
+        return;
+      }
+      done = true;
+      failure = cause;
+    }
+    signalSubscriptions();
+  }
+
+  private void signalSubscriptions() {
+    ImmutableList<Subscription> toSignal;
+    synchronized (this) {
+      toSignal = ImmutableList.copyOf(subscriptions);
+    }
+    for (Subscription subscription : toSignal) {
+      subscription.signal();
+    }
+  }
+
+  /**
+   * Delivers the elements of the stream to one listener, in order. At most one delivery task per
+   * listener is scheduled at a time.
+   */
+  private final class Subscription implements Runnable {
+    final Listener<? super T> listener;
+    final Executor executor;
+
+    // All guarded by ProducerStream.this.
+    int delivered;
+    boolean scheduled;
+    boolean finished;
+
+    Subscription(Listener<? super T> listener, Executor executor) {
+      this.listener = listener;
+      this.executor = executor;
+    }
+
+    void signal() {
+      synchronized (ProducerStream.this) {
+        if (scheduled || finished) {
+          return;
+        }
+        scheduled = true;
+      }
+      try {
+        executor.execute(this);
+      } catch (RuntimeException e) {
+        synchronized (ProducerStream.this) {
+          scheduled = false;
+        }
+        logger.log(
+            Level.SEVERE, "RuntimeException while executing " + listener + " on " + executor, e);
+      }
+    }
+
+    @Override
+    public void run() {
+      while (true) {
+        T element = null;
+        boolean complete = false;
+        Throwable cause = null;
+        synchronized (ProducerStream.this) {
+          if (delivered < elements.size()) {
+            element = elements.get(delivered++);
+          } else if (done) {
+            finished = true;
+            scheduled = false;
+            subscriptions.remove(this);
+            complete = failure == null;
+            cause = failure;
+          } else {
+            scheduled = false;
+            return;
+          }
+        }
+        try {
+          if (element != null) {
+            listener.onElement(element);
+          } else if (complete) {
+            listener.onComplete();
+          } else {
+            listener.onFailure(cause);
+          }
+        } catch (RuntimeException e) {
+          logger.log(Level.SEVERE, "RuntimeException while calling listener " + listener, e);
+        }
+        if (element == null) {
+          return;
+        }
+      }
+    }
+  }
+}
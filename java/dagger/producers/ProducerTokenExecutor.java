@@ -0,0 +1,37 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import dagger.internal.Beta;
+import dagger.producers.monitoring.ProducerToken;
+import java.util.concurrent.Executor;
+import org.checkerframework.checker.nullness.compatqual.NullableDecl;
+
+/**
+ * An {@link Executor} that wants to know which {@linkplain Produces producer method} each task is
+ * for, for example to {@linkplain CriticalPathExecutor prioritize} some producers over others. If
+ * the {@link Production @Production} executor implements this interface, producers submit their
+ * tasks with {@link #execute(Runnable, ProducerToken)} instead of {@link #execute(Runnable)}.
+ */
+@Beta
+public interface ProducerTokenExecutor extends Executor {
+  /**
+   * Executes the task of the producer identified by {@code token}, which is null if the producer
+   * was not given a token.
+   */
+  void execute(Runnable task, @NullableDecl ProducerToken token);
+}
@@ -37,4 +37,18 @@ import java.lang.annotation.Target;
 @Target(METHOD)
 @Retention(RUNTIME)
 @Beta
-public @interface Produces {}
+public @interface Produces {
+  /**
+   * If true, the method is called directly on the thread that completes its last dependency (or on
+   * the requesting thread, if its dependencies are already done) instead of being submitted to the
+   * {@link Production @Production} {@link java.util.concurrent.Executor}. This saves a trip through
+   * the executor's queue, so it should be used for cheap, non-blocking methods such as simple
+   * transformations of their inputs.
+   *
+   * <p>Monitors still see the producer become {@linkplain
+   * dagger.producers.monitoring.ProducerMonitor#ready() ready} before the method starts. To bound
+   * the stack depth, a producer may still be submitted to the executor if many inline producers are
+   * already running on the current thread.
+   */
+  boolean inline() default false;
+}
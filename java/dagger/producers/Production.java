@@ -29,6 +29,12 @@ import javax.inject.Qualifier;
  * <p>The only type that may be so qualified is {@link java.util.concurrent.Executor}. In this case,
  * the resulting executor is used to schedule {@linkplain Produces producer methods} in a
  * {@link ProductionComponent} or {@link ProductionSubcomponent}.
+ *
+ * <p>Producer methods that return a {@code ListenableFuture} don't hold a thread while they wait,
+ * so they can share a small thread pool. If the executor runs each task on its own thread, such as
+ * a virtual-thread-per-task executor, producer methods may instead block on I/O directly. When the
+ * component's future is cancelled with {@code mayInterruptIfRunning}, the threads of producer
+ * methods that are still running are interrupted.
  */
 @Documented
 @Retention(RUNTIME)
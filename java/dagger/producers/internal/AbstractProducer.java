@@ -45,8 +45,17 @@ public abstract class AbstractProducer<T> implements CancellableProducer<T> {
   public final void cancel(boolean mayInterruptIfRunning) {
     requested.set(true); // Avoid potentially starting the task later only to cancel it immediately.
     future.doCancel(mayInterruptIfRunning);
+    if (mayInterruptIfRunning) {
+      interruptTask();
+    }
   }
 
+  /**
+   * Called when this producer is cancelled with {@code mayInterruptIfRunning}, to interrupt any
+   * thread that is blocked computing its value. The default implementation does nothing.
+   */
+  protected void interruptTask() {}
+
   @Override
   public Producer<T> newDependencyView() {
     return new NonCancellationPropagatingView();
@@ -67,17 +76,34 @@ public abstract class AbstractProducer<T> implements CancellableProducer<T> {
     /**
      * An independently cancellable view of this node. Needs to be cancellable by normal future
      * cancellation so that the view at an entry point can listen for its cancellation.
+     *
+     * <p>Entry point views create this eagerly in {@link #addCancellationListener}, before the
+     * view is published, so that {@link #get()} returns the future that the listener is attached
+     * to. Other views create it on their first {@link #get()}, after {@link #compute()} has been
+     * called, so that views of nodes that are already done can return the node's future without
+     * wrapping it. Racing threads may each create such a view; since none of them propagate
+     * cancellation, any of them may be returned.
      */
-    private final ListenableFuture<T> viewFuture = nonCancellationPropagating(future);
+    private volatile ListenableFuture<T> viewFuture;
 
     @SuppressWarnings("FutureReturnValueIgnored")
     @Override
     public ListenableFuture<T> get() {
       AbstractProducer.this.get(); // force compute()
-      return viewFuture;
+      return viewFuture();
+    }
+
+    private ListenableFuture<T> viewFuture() {
+      ListenableFuture<T> result = viewFuture;
+      if (result == null) {
+        result = nonCancellationPropagating(future);
+        viewFuture = result;
+      }
+      return result;
     }
 
     void addCancellationListener(final CancellationListener cancellationListener) {
+      final ListenableFuture<T> viewFuture = viewFuture();
       viewFuture.addListener(
           new Runnable() {
             @Override
@@ -21,9 +21,12 @@ import static dagger.internal.Preconditions.checkNotNull;
 import com.google.common.util.concurrent.AsyncFunction;
 import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
+import dagger.producers.ProducerTokenExecutor;
 import dagger.producers.monitoring.ProducerMonitor;
 import dagger.producers.monitoring.ProducerToken;
 import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
 import javax.inject.Provider;
 import org.checkerframework.checker.nullness.compatqual.NullableDecl;
@@ -40,11 +43,35 @@ import org.checkerframework.checker.nullness.compatqual.NullableDecl;
  */
 public abstract class AbstractProducesMethodProducer<D, T> extends AbstractProducer<T>
     implements AsyncFunction<D, T>, Executor {
+  /**
+   * The maximum number of {@linkplain #executesInline() inline} producers that may be running on
+   * one thread's stack. Past this depth, inline producers are submitted to the executor so that a
+   * long chain of them completing one after another cannot overflow the stack.
+   */
+  private static final int MAX_INLINE_DEPTH = 64;
+
+  private static final ThreadLocal<int[]> inlineDepth =
+      new ThreadLocal<int[]>() {
+        @Override
+        protected int[] initialValue() {
+          return new int[1];
+        }
+      };
+
   private final Provider<ProductionComponentMonitor> monitorProvider;
   @NullableDecl private final ProducerToken token;
   private final Provider<Executor> executorProvider;
   private volatile ProducerMonitor monitor = null;
 
+  /**
+   * The thread that is calling the {@code @Produces} method, so that it can be interrupted if this
+   * producer is cancelled. Guarded by this.
+   */
+  @NullableDecl private Thread producesMethodThread;
+
+  /** Whether this producer has been cancelled with interruption. Guarded by this. */
+  private boolean interrupted;
+
   protected AbstractProducesMethodProducer(
       Provider<ProductionComponentMonitor> monitorProvider,
       @NullableDecl ProducerToken token,
@@ -58,11 +85,47 @@ public abstract class AbstractProducesMethodProducer<D, T> extends AbstractProdu
   protected final ListenableFuture<T> compute() {
     monitor = monitorProvider.get().producerMonitorFor(token);
     monitor.requested();
-    ListenableFuture<T> result = Futures.transformAsync(collectDependencies(), this, this);
+    ListenableFuture<D> dependencies = collectDependencies();
+    ListenableFuture<T> result =
+        executesInline() && dependencies.isDone()
+            ? applyNow(dependencies)
+            : Futures.transformAsync(dependencies, this, this);
     monitor.addCallbackTo(result);
     return result;
   }
 
+  /**
+   * Calls the {@link dagger.producers.Produces} method on the current thread with the values of
+   * {@code dependencies}, which must be done. This is the same as {@link
+   * Futures#transformAsync(ListenableFuture, AsyncFunction, Executor)} with an inline executor, but
+   * doesn't allocate a future and listener that would only be used once.
+   */
+  @SuppressWarnings("deprecation") // apply() may be called from compute()
+  private ListenableFuture<T> applyNow(ListenableFuture<D> dependencies) {
+    // transformAsync() calls execute(), and so ready(), even if the dependencies failed.
+    monitor.ready();
+    D asyncDependencies;
+    try {
+      asyncDependencies = Futures.getDone(dependencies);
+    } catch (ExecutionException e) {
+      return Futures.immediateFailedFuture(e.getCause());
+    } catch (CancellationException e) {
+      return Futures.immediateCancelledFuture();
+    }
+    ListenableFuture<T> result;
+    try {
+      result = apply(asyncDependencies);
+    } catch (Throwable t) {
+      return Futures.immediateFailedFuture(t);
+    }
+    return result != null
+        ? result
+        : Futures.<T>immediateFailedFuture(
+            new NullPointerException(
+                "callProducesMethod() returned null instead of a Future. Did you mean to return"
+                    + " immediateFuture(null)?"));
+  }
+
   /**
    * Collects the asynchronous dependencies to be passed to {@link
    * Futures#transformAsync(ListenableFuture, AsyncFunction, Executor)}.
@@ -77,24 +140,88 @@ public abstract class AbstractProducesMethodProducer<D, T> extends AbstractProdu
     // because we'll wrap all monitoring in non-throwing monitors before we pass them to the
     // factories.
     monitor.methodStarting();
+    if (executesInline()) {
+      try {
+        return callProducesMethod(asyncDependencies);
+      } finally {
+        monitor.methodFinished();
+      }
+    }
+    synchronized (this) {
+      if (interrupted) {
+        monitor.methodFinished();
+        return Futures.immediateCancelledFuture();
+      }
+      producesMethodThread = Thread.currentThread();
+    }
     try {
       return callProducesMethod(asyncDependencies);
     } finally {
+      synchronized (this) {
+        producesMethodThread = null;
+        if (interrupted) {
+          // Don't leave the interrupt for whatever the executor's thread runs next.
+          Thread.interrupted();
+        }
+      }
       monitor.methodFinished();
     }
   }
 
+  /**
+   * Interrupts the thread that is calling the {@link dagger.producers.Produces} method, if any, so
+   * that methods that block, for instance on an executor that runs each task on its own thread,
+   * stop when the component is cancelled. Inline producers are never interrupted.
+   */
+  @Override
+  protected final void interruptTask() {
+    synchronized (this) {
+      interrupted = true;
+      if (producesMethodThread != null) {
+        producesMethodThread.interrupt();
+      }
+    }
+  }
+
   /**
    * Calls the {@link dagger.producers.Produces} method. This will always be called on the {@link
-   * Executor} provided to this producer.
+   * Executor} provided to this producer, unless the producer {@linkplain #executesInline() executes
+   * inline}.
    */
   protected abstract ListenableFuture<T> callProducesMethod(D asyncDependencies) throws Exception;
 
+  /**
+   * Returns true if the {@link dagger.producers.Produces} method is cheap enough to be called
+   * directly on the thread that completes its last dependency, rather than being submitted to the
+   * {@link Executor}. This is overridden by the generated producers of methods annotated with
+   * {@link dagger.producers.Produces#inline() @Produces(inline = true)}.
+   */
+  protected boolean executesInline() {
+    return false;
+  }
+
   /** @deprecated this may only be called from the internal {@link #compute()} */
   @Deprecated
   @Override
   public final void execute(Runnable runnable) {
     monitor.ready();
-    executorProvider.get().execute(runnable);
+    if (executesInline()) {
+      int[] depth = inlineDepth.get();
+      if (depth[0] < MAX_INLINE_DEPTH) {
+        depth[0]++;
+        try {
+          runnable.run();
+        } finally {
+          depth[0]--;
+        }
+        return;
+      }
+    }
+    Executor executor = executorProvider.get();
+    if (executor instanceof ProducerTokenExecutor) {
+      ((ProducerTokenExecutor) executor).execute(runnable, token);
+    } else {
+      executor.execute(runnable);
+    }
   }
 }
@@ -37,48 +37,58 @@ import java.util.Set;
  */
 public abstract class DependencyMethodProducer<T> implements CancellableProducer<T> {
 
-  /** Weak set of all incomplete futures this producer has returned. */
+  /**
+   * Weak set of all incomplete futures this producer has returned. This is a concurrent set, so
+   * that calls to {@link #get()} from many producers don't contend on a single lock.
+   */
   private final Set<ListenableFuture<T>> futures =
       Collections.newSetFromMap(new MapMaker().weakKeys().<ListenableFuture<T>, Boolean>makeMap());
 
-  private boolean cancelled = false;
+  /**
+   * Whether this producer has been cancelled. {@link #mayInterruptIfRunning} is written before this
+   * is set, so it is visible to any thread that sees this as true.
+   */
+  private volatile boolean cancelled = false;
+
+  private volatile boolean mayInterruptIfRunning = false;
 
   /** Calls a method on a component dependency to get a future. */
   protected abstract ListenableFuture<T> callDependencyMethod();
 
   @Override
   public final ListenableFuture<T> get() {
-    synchronized (futures) {
-      if (cancelled) {
-        return Futures.immediateCancelledFuture();
-      }
+    if (cancelled) {
+      return Futures.immediateCancelledFuture();
+    }
 
-      final ListenableFuture<T> future = callDependencyMethod();
-      if (!future.isDone() && futures.add(future)) {
-        future.addListener(
-            new Runnable() {
-              @Override
-              public void run() {
-                synchronized (futures) {
-                  futures.remove(future);
-                }
-              }
-            },
-            directExecutor());
+    final ListenableFuture<T> future = callDependencyMethod();
+    if (!future.isDone() && futures.add(future)) {
+      future.addListener(
+          new Runnable() {
+            @Override
+            public void run() {
+              futures.remove(future);
+            }
+          },
+          directExecutor());
+      // cancel() sets cancelled before it cancels the futures in the set, and this future was added
+      // to the set before cancelled is read again here, so if cancel() runs concurrently, either it
+      // sees this future or this sees that the producer was cancelled.
+      if (cancelled) {
+        future.cancel(mayInterruptIfRunning);
       }
-      return future;
     }
+    return future;
   }
 
   @Override
   public final void cancel(boolean mayInterruptIfRunning) {
-    synchronized (futures) {
-      cancelled = true;
-      for (ListenableFuture<T> future : futures) {
-        // futures is a concurrent set so that the concurrent removal that will happen here is not
-        // a problem
-        future.cancel(mayInterruptIfRunning);
-      }
+    this.mayInterruptIfRunning = mayInterruptIfRunning;
+    cancelled = true;
+    for (ListenableFuture<T> future : futures) {
+      // futures is a concurrent set so that the concurrent removal that will happen here is not
+      // a problem
+      future.cancel(mayInterruptIfRunning);
     }
   }
 
@@ -0,0 +1,33 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.internal;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import dagger.producers.monitoring.ProducerToken;
+
+/**
+ * Implemented by generated production components that export the dependencies between their
+ * {@linkplain dagger.producers.Produces producer methods}, which are generated when the {@code
+ * dagger.experimentalProducerDependencyGraph} compiler option is enabled.
+ */
+public interface ProducerDependencyGraph {
+  /**
+   * Returns the producer methods that each producer method in the component depends on, either
+   * directly or through other production bindings such as multibindings.
+   */
+  ImmutableSetMultimap<ProducerToken, ProducerToken> producerDependencies();
+}
@@ -29,9 +29,12 @@ import com.google.common.util.concurrent.Futures;
 import com.google.common.util.concurrent.ListenableFuture;
 import dagger.producers.Produced;
 import dagger.producers.Producer;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import javax.inject.Provider;
 
 /**
@@ -51,6 +54,14 @@ public final class Producers {
   // TODO(beder): Document what happens with an InterruptedException after you figure out how to
   // trigger one in a test.
   public static <T> ListenableFuture<Produced<T>> createFutureProduced(ListenableFuture<T> future) {
+    if (future.isDone() && !future.isCancelled()) {
+      // Avoid allocating the transform and fallback futures for a result that is already known.
+      try {
+        return Futures.immediateFuture(Produced.successful(Futures.getDone(future)));
+      } catch (ExecutionException e) {
+        return Futures.immediateFuture(Produced.<T>failed(e.getCause()));
+      }
+    }
     return catchingAsync(
         transform(future, Producers.<T>resultToProduced(), directExecutor()),
         Throwable.class,
@@ -101,6 +112,27 @@ public final class Producers {
         directExecutor());
   }
 
+  /**
+   * Returns a future of a list of the values of {@code futures}, like {@link Futures#allAsList}.
+   * If all of the futures have already succeeded, the list is returned in an immediate future
+   * rather than in a future that listens to each of the inputs.
+   */
+  public static ListenableFuture<List<Object>> allAsList(ListenableFuture<?>... futures) {
+    Object[] values = new Object[futures.length];
+    for (int i = 0; i < futures.length; i++) {
+      ListenableFuture<?> future = futures[i];
+      if (!future.isDone() || future.isCancelled()) {
+        return Futures.<Object>allAsList(futures);
+      }
+      try {
+        values[i] = Futures.getDone(future);
+      } catch (ExecutionException e) {
+        return Futures.<Object>allAsList(futures);
+      }
+    }
+    return Futures.immediateFuture(Collections.unmodifiableList(Arrays.asList(values)));
+  }
+
   /**
    * Creates a new {@code ListenableFuture} whose value is a set containing the values of all its
    * input futures, if all succeed. If any input fails, the returned future fails immediately.
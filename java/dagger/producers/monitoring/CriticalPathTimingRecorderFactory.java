@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSetMultimap;
+import dagger.internal.Beta;
+import dagger.producers.internal.ProducerDependencyGraph;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A timing recorder factory that finds the critical path of each execution of a production
+ * component: the chain of producers that determined how long the execution took. For each producer
+ * on that path, the time that it added to the execution's latency is aggregated into a {@linkplain
+ * #criticalPathHistograms() histogram}. Producers that spend a lot of time on the critical path are
+ * the ones where more parallelism, or a faster implementation, would reduce latency.
+ *
+ * <p>Install this like any other {@link ProductionComponentTimingRecorder.Factory}. The
+ * dependencies between producers are read from the component, so the component must be compiled
+ * with {@code -Adagger.experimentalProducerDependencyGraph=enabled}. Otherwise, only the last
+ * producer of each execution is recorded.
+ *
+ * <p>An execution starts when the first producer is requested from a component and ends when every
+ * producer that has been requested from it is done. Producers that are skipped because one of
+ * their inputs failed are never on the critical path.
+ *
+ * <p>Only producers that are requested from the component instance that this factory was given are
+ * tracked, so executions of production subcomponents are not recorded.
+ */
+@Beta
+public final class CriticalPathTimingRecorderFactory
+    implements ProductionComponentTimingRecorder.Factory {
+  private final ConcurrentMap<ProducerToken, Histogram> histograms =
+      new ConcurrentHashMap<ProducerToken, Histogram>();
+
+  @Override
+  public ProductionComponentTimingRecorder create(Object component) {
+    if (!(component instanceof ProducerDependencyGraph)) {
+      return new ExecutionRecorder(ImmutableSetMultimap.<ProducerToken, ProducerToken>of());
+    }
+    return new ExecutionRecorder(((ProducerDependencyGraph) component).producerDependencies());
+  }
+
+  /**
+   * Returns the distribution of the time that each producer has spent on the critical path of the
+   * executions recorded so far. Producers that were never on a critical path are absent.
+   */
+  public ImmutableMap<ProducerToken, Histogram> criticalPathHistograms() {
+    return ImmutableMap.copyOf(histograms);
+  }
+
+  private Histogram histogram(ProducerToken token) {
+    Histogram histogram = histograms.get(token);
+    if (histogram == null) {
+      Histogram newHistogram = new Histogram();
+      histogram = histograms.putIfAbsent(token, newHistogram);
+      if (histogram == null) {
+        histogram = newHistogram;
+      }
+    }
+    return histogram;
+  }
+
+  /**
+   * A histogram of durations, with buckets whose bounds are powers of two nanoseconds. The counts
+   * are updated as executions finish.
+   */
+  public static final class Histogram {
+    private static final int BUCKETS = Long.SIZE;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong totalNanos = new AtomicLong();
+
+    Histogram() {}
+
+    void record(long nanos) {
+      buckets.incrementAndGet(nanos <= 1 ? 0 : BUCKETS - 1 - Long.numberOfLeadingZeros(nanos));
+      count.incrementAndGet();
+      totalNanos.addAndGet(nanos);
+    }
+
+    /** Returns the number of durations recorded. */
+    public long count() {
+      return count.get();
+    }
+
+    /** Returns the sum of the durations recorded, in nanoseconds. */
+    public long totalNanos() {
+      return totalNanos.get();
+    }
+
+    /**
+     * Returns the number of durations in each bucket. The bucket at index {@code i} counts the
+     * durations of at least 2<sup>i</sup> and less than 2<sup>i+1</sup> nanoseconds, except that
+     * the first bucket also counts durations of zero.
+     */
+    public ImmutableList<Long> bucketCounts() {
+      ImmutableList.Builder<Long> counts = ImmutableList.builder();
+      for (int i = 0; i < BUCKETS; i++) {
+        counts.add(buckets.get(i));
+      }
+      return counts.build();
+    }
+
+    @Override
+    public String toString() {
+      return "Histogram{count=" + count() + ", totalNanos=" + totalNanos() + "}";
+    }
+  }
+
+  /** Records the producers of one component, and finds the critical path of each execution. */
+  private final class ExecutionRecorder implements ProductionComponentTimingRecorder {
+    private final ImmutableSetMultimap<ProducerToken, ProducerToken> dependencies;
+
+    // The following are guarded by this.
+    private final Map<ProducerToken, ProducerTiming> timings =
+        new HashMap<ProducerToken, ProducerTiming>();
+    private int pendingProducers;
+
+    ExecutionRecorder(ImmutableSetMultimap<ProducerToken, ProducerToken> dependencies) {
+      this.dependencies = dependencies;
+    }
+
+    @Override
+    public synchronized ProducerTimingRecorder producerTimingRecorderFor(ProducerToken token) {
+      pendingProducers++;
+      return new ProducerTiming(token);
+    }
+
+    synchronized void producerFinished(ProducerTiming timing) {
+      if (timing.ran()) {
+        timings.put(timing.token, timing);
+      }
+      if (--pendingProducers == 0) {
+        recordCriticalPath();
+        timings.clear();
+      }
+    }
+
+    /**
+     * Walks back from the producer that finished last, each time to the dependency that finished
+     * last, and records the time between each producer finishing and its predecessor finishing.
+     */
+    private void recordCriticalPath() {
+      ProducerTiming current = null;
+      for (ProducerTiming timing : timings.values()) {
+        if (current == null || timing.finishedNanos > current.finishedNanos) {
+          current = timing;
+        }
+      }
+      Set<ProducerToken> visited = new HashSet<ProducerToken>();
+      while (current != null && visited.add(current.token)) {
+        ProducerTiming predecessor = null;
+        for (ProducerToken dependency : dependencies.get(current.token)) {
+          ProducerTiming timing = timings.get(dependency);
+          if (timing != null
+              && timing.finishedNanos <= current.finishedNanos
+              && (predecessor == null || timing.finishedNanos > predecessor.finishedNanos)) {
+            predecessor = timing;
+          }
+        }
+        long readyNanos =
+            predecessor == null
+                ? current.startedNanos
+                : Math.min(predecessor.finishedNanos, current.startedNanos);
+        histogram(current.token).record(current.finishedNanos - readyNanos);
+        current = predecessor;
+      }
+    }
+
+    /** The timing of one producer in the current execution. */
+    private final class ProducerTiming extends ProducerTimingRecorder {
+      final ProducerToken token;
+      volatile long startedNanos = -1;
+      volatile long finishedNanos = -1;
+
+      ProducerTiming(ProducerToken token) {
+        this.token = token;
+      }
+
+      boolean ran() {
+        return startedNanos >= 0 && finishedNanos >= 0;
+      }
+
+      @Override
+      public void recordMethod(long startedNanos, long durationNanos) {
+        this.startedNanos = startedNanos;
+      }
+
+      @Override
+      public void recordSuccess(long latencyNanos) {
+        finished(latencyNanos);
+      }
+
+      @Override
+      public void recordFailure(Throwable exception, long latencyNanos) {
+        finished(latencyNanos);
+      }
+
+      @Override
+      public void recordSkip(Throwable exception) {
+        producerFinished(this);
+      }
+
+      private void finished(long latencyNanos) {
+        if (startedNanos >= 0) {
+          finishedNanos = startedNanos + latencyNanos;
+        }
+        producerFinished(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+
+import dagger.internal.Beta;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Monitors only a sample of the executions of production components, so that expensive monitors,
+ * like tracing, can be installed on components that serve many requests.
+ *
+ * <p>The sampling decision is made once, when the component is created. A component that is not
+ * sampled gets {@link ProductionComponentMonitor#noOp()}, which is shared by all components and
+ * does not allocate anything for its producers.
+ */
+@Beta
+public final class SamplingProductionComponentMonitor {
+  /** Decides whether a production component should be monitored. */
+  public interface Sampler {
+    /**
+     * Returns true if {@code component} should be monitored. Called once, when the component is
+     * created.
+     */
+    boolean shouldMonitor(Object component);
+  }
+
+  public static final class Factory extends ProductionComponentMonitor.Factory {
+    private final ProductionComponentMonitor.Factory delegate;
+    private final Sampler sampler;
+
+    /**
+     * Creates a factory that monitors each component with {@code delegate} with probability {@code
+     * samplingRate}, and does not monitor the others.
+     *
+     * @throws IllegalArgumentException if {@code samplingRate} is not between 0 and 1
+     */
+    public Factory(ProductionComponentMonitor.Factory delegate, double samplingRate) {
+      this(delegate, new RandomSample(samplingRate));
+    }
+
+    /**
+     * Creates a factory that monitors the components that {@code sampler} selects with {@code
+     * delegate}, and does not monitor the others.
+     */
+    public Factory(ProductionComponentMonitor.Factory delegate, Sampler sampler) {
+      this.delegate = checkNotNull(delegate);
+      this.sampler = checkNotNull(sampler);
+    }
+
+    @Override
+    public ProductionComponentMonitor create(Object component) {
+      return sampler.shouldMonitor(component)
+          ? delegate.create(component)
+          : ProductionComponentMonitor.noOp();
+    }
+  }
+
+  private static final class RandomSample implements Sampler {
+    private final double samplingRate;
+
+    RandomSample(double samplingRate) {
+      checkArgument(
+          samplingRate >= 0 && samplingRate <= 1,
+          "samplingRate must be between 0 and 1: %s",
+          samplingRate);
+      this.samplingRate = samplingRate;
+    }
+
+    @Override
+    public boolean shouldMonitor(Object component) {
+      return samplingRate >= 1 || ThreadLocalRandom.current().nextDouble() < samplingRate;
+    }
+  }
+
+  private SamplingProductionComponentMonitor() {}
+}
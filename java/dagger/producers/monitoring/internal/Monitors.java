@@ -86,7 +86,7 @@ public final class Monitors {
     public ProducerMonitor producerMonitorFor(ProducerToken token) {
       try {
         ProducerMonitor monitor = delegate.producerMonitorFor(token);
-        return monitor == null ? ProducerMonitor.noOp() : new NonThrowingProducerMonitor(monitor);
+        return isNoOp(monitor) ? ProducerMonitor.noOp() : new NonThrowingProducerMonitor(monitor);
       } catch (RuntimeException e) {
         logProducerMonitorForException(e, delegate, token);
         return ProducerMonitor.noOp();
@@ -104,7 +104,7 @@ public final class Monitors {
       public ProductionComponentMonitor create(Object component) {
         try {
           ProductionComponentMonitor monitor = delegate.create(component);
-          return monitor == null
+          return isNoOp(monitor)
               ? ProductionComponentMonitor.noOp()
               : new NonThrowingProductionComponentMonitor(monitor);
         } catch (RuntimeException e) {
@@ -199,7 +199,7 @@ public final class Monitors {
       for (ProductionComponentMonitor delegate : delegates) {
         try {
           ProducerMonitor monitor = delegate.producerMonitorFor(token);
-          if (monitor != null) {
+          if (!isNoOp(monitor)) {
             monitorsBuilder.add(monitor);
           }
         } catch (RuntimeException e) {
@@ -229,7 +229,7 @@ public final class Monitors {
         for (ProductionComponentMonitor.Factory delegate : delegates) {
           try {
             ProductionComponentMonitor monitor = delegate.create(component);
-            if (monitor != null) {
+            if (!isNoOp(monitor)) {
               monitorsBuilder.add(monitor);
             }
           } catch (RuntimeException e) {
@@ -326,6 +326,20 @@ public final class Monitors {
     }
   }
 
+  /**
+   * Returns true if {@code monitor} is null or the shared no-op monitor. Either way, nothing needs
+   * to be delegated to it, so it is dropped instead of being wrapped. This keeps components that a
+   * monitor decides not to monitor, such as unsampled ones, from allocating per-producer wrappers.
+   */
+  private static boolean isNoOp(ProductionComponentMonitor monitor) {
+    return monitor == null || monitor == ProductionComponentMonitor.noOp();
+  }
+
+  /** Returns true if {@code monitor} is null or the shared no-op monitor. */
+  private static boolean isNoOp(ProducerMonitor monitor) {
+    return monitor == null || monitor == ProducerMonitor.noOp();
+  }
+
   /** Returns a provider of a no-op component monitor. */
   public static Provider<ProductionComponentMonitor> noOpProductionComponentMonitorProvider() {
     return NO_OP_PRODUCTION_COMPONENT_MONITOR_PROVIDER;
@@ -83,6 +83,20 @@ public interface BindingGraphPlugin {
     return Collections.emptySet();
   }
 
+  /**
+   * Returns {@code true} if {@link #visitGraph(BindingGraph, DiagnosticReporter)} never calls into
+   * the compiler's {@code javax.lang.model} API: neither through the {@link Types}, {@link
+   * Elements}, or {@link Filer} given to this plugin, nor through the elements and type mirrors
+   * reachable from the {@link BindingGraph}. When {@code -Adagger.experimentalParallelPlugins} is
+   * enabled, model-free plugins may visit a graph on another thread, concurrently with other
+   * model-free plugins. Their diagnostics are still reported in order.
+   *
+   * <p>By default, plugins are not model-free and always visit graphs on the processing thread.
+   */
+  default boolean isModelFree() {
+    return false;
+  }
+
   /**
    * A distinguishing name of the plugin that will be used in diagnostics printed to the {@link
    * Messager}. By default, the {@linkplain Class#getCanonicalName() fully qualified name} of the
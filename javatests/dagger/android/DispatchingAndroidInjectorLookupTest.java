@@ -0,0 +1,113 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.android;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import javax.inject.Provider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+/**
+ * Tests the order in which {@link DispatchingAndroidInjector} looks up injector factories. The
+ * lookup only depends on {@link Object#getClass()}, so these tests use plain classes and run
+ * without Robolectric.
+ */
+@RunWith(JUnit4.class)
+public final class DispatchingAndroidInjectorLookupTest {
+  private final List<String> resolvedMaps = new ArrayList<>();
+  private final List<String> createdBy = new ArrayList<>();
+
+  @Test
+  public void classKey_stringKeyedFactoriesAreNotResolved() {
+    DispatchingAndroidInjector<Object> injector =
+        newDispatchingAndroidInjector(
+            ImmutableMap.of(Foo.class, factory("class")),
+            ImmutableMap.of(Bar.class.getName(), factory("string")));
+
+    assertThat(injector.maybeInject(new Foo())).isTrue();
+    assertThat(createdBy).containsExactly("class");
+    assertThat(resolvedMaps).containsExactly("class");
+  }
+
+  @Test
+  public void classKey_takesPrecedenceOverStringKey() {
+    DispatchingAndroidInjector<Object> injector =
+        newDispatchingAndroidInjector(
+            ImmutableMap.of(Foo.class, factory("class")),
+            ImmutableMap.of(Foo.class.getName(), factory("string")));
+
+    assertThat(injector.maybeInject(new Foo())).isTrue();
+    assertThat(createdBy).containsExactly("class");
+  }
+
+  @Test
+  public void stringKey_isUsedIfNoClassKeyIsBound() {
+    DispatchingAndroidInjector<Object> injector =
+        newDispatchingAndroidInjector(
+            ImmutableMap.of(Foo.class, factory("class")),
+            ImmutableMap.of(Bar.class.getName(), factory("string")));
+
+    assertThat(injector.maybeInject(new Bar())).isTrue();
+    assertThat(createdBy).containsExactly("string");
+    assertThat(resolvedMaps).containsExactly("class", "string").inOrder();
+  }
+
+  @Test
+  public void noKeyBound() {
+    DispatchingAndroidInjector<Object> injector =
+        newDispatchingAndroidInjector(
+            ImmutableMap.of(Foo.class, factory("class")),
+            ImmutableMap.of(Foo.class.getName(), factory("string")));
+
+    assertThat(injector.maybeInject(new Bar())).isFalse();
+    assertThat(createdBy).isEmpty();
+  }
+
+  private DispatchingAndroidInjector<Object> newDispatchingAndroidInjector(
+      Map<Class<?>, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithClassKeys,
+      Map<String, Provider<AndroidInjector.Factory<?>>> injectorFactoriesWithStringKeys) {
+    return new DispatchingAndroidInjector<>(
+        () -> {
+          resolvedMaps.add("class");
+          return injectorFactoriesWithClassKeys;
+        },
+        () -> {
+          resolvedMaps.add("string");
+          return injectorFactoriesWithStringKeys;
+        },
+        ImmutableSet.of());
+  }
+
+  private Provider<AndroidInjector.Factory<?>> factory(String name) {
+    return () ->
+        instance -> {
+          createdBy.add(name);
+          return injected -> {};
+        };
+  }
+
+  static final class Foo {}
+
+  static final class Bar {}
+}
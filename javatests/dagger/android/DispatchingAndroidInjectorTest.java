@@ -21,9 +21,13 @@ import static org.junit.Assert.fail;
 
 import android.app.Activity;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
 import dagger.android.AndroidInjector.Factory;
 import dagger.android.DispatchingAndroidInjector.InvalidInjectorBindingException;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
 import javax.inject.Provider;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -105,15 +109,80 @@ public final class DispatchingAndroidInjectorTest {
     }
   }
 
+  @Test
+  public void injectorFactoryMapsAreResolvedOnFirstInject() {
+    AtomicInteger resolutions = new AtomicInteger();
+    DispatchingAndroidInjector<Activity> dispatchingAndroidInjector =
+        new DispatchingAndroidInjector<>(
+            () -> {
+              resolutions.incrementAndGet();
+              return ImmutableMap.of(FooActivity.class, FooInjector.Factory::new);
+            },
+            ImmutableMap::of,
+            ImmutableSet.of());
+    assertThat(resolutions.get()).isEqualTo(0);
+
+    FooActivity activity = Robolectric.setupActivity(FooActivity.class);
+    assertThat(dispatchingAndroidInjector.maybeInject(activity)).isTrue();
+    assertThat(resolutions.get()).isEqualTo(1);
+  }
+
+  @Test
+  public void injectionListenersAreNotifiedOfTimings() {
+    List<Class<?>> injectedClasses = new ArrayList<>();
+    AndroidInjectionListener listener =
+        (injectedClass, lookupNanos, injectorCreationNanos, membersInjectionNanos) -> {
+          assertThat(lookupNanos).isAtLeast(0L);
+          assertThat(injectorCreationNanos).isAtLeast(0L);
+          assertThat(membersInjectionNanos).isAtLeast(0L);
+          injectedClasses.add(injectedClass);
+        };
+    DispatchingAndroidInjector<Activity> dispatchingAndroidInjector =
+        new DispatchingAndroidInjector<>(
+            () -> ImmutableMap.of(FooActivity.class, FooInjector.Factory::new),
+            ImmutableMap::of,
+            ImmutableSet.of(listener));
+
+    FooActivity fooActivity = Robolectric.setupActivity(FooActivity.class);
+    BarActivity barActivity = Robolectric.setupActivity(BarActivity.class);
+    assertThat(dispatchingAndroidInjector.maybeInject(fooActivity)).isTrue();
+    assertThat(dispatchingAndroidInjector.maybeInject(barActivity)).isFalse();
+
+    assertThat(injectedClasses).containsExactly(FooActivity.class);
+  }
+
+  @Test
+  public void exceptionsFromInjectionListenersAreNotBlamedOnTheBinding() {
+    ClassCastException listenerFailure = new ClassCastException();
+    AndroidInjectionListener listener =
+        (injectedClass, lookupNanos, injectorCreationNanos, membersInjectionNanos) -> {
+          throw listenerFailure;
+        };
+    DispatchingAndroidInjector<Activity> dispatchingAndroidInjector =
+        new DispatchingAndroidInjector<>(
+            () -> ImmutableMap.of(FooActivity.class, FooInjector.Factory::new),
+            ImmutableMap::of,
+            ImmutableSet.of(listener));
+    FooActivity activity = Robolectric.setupActivity(FooActivity.class);
+
+    try {
+      dispatchingAndroidInjector.maybeInject(activity);
+      fail("Expected the listener's ClassCastException");
+    } catch (InvalidInjectorBindingException e) {
+      throw new AssertionError("The listener's exception was blamed on the binding", e);
+    } catch (ClassCastException expected) {
+      assertThat(expected).isSameAs(listenerFailure);
+    }
+  }
+
   private static <T> DispatchingAndroidInjector<T> newDispatchingAndroidInjector(
       Map<Class<?>, Provider<Factory<?>>> injectorFactoriesWithClassKeys,
       Map<String, Provider<AndroidInjector.Factory<?>>>
           injectorFactoriesWithStringKeys) {
     return new DispatchingAndroidInjector<>(
-        injectorFactoriesWithClassKeys,
-        injectorFactoriesWithStringKeys ,
-        ImmutableMap.of(),
-        ImmutableMap.of());
+        () -> injectorFactoriesWithClassKeys,
+        () -> injectorFactoriesWithStringKeys,
+        ImmutableSet.of());
   }
 
   static class FooActivity extends Activity {}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import dagger.producers.internal.AbstractProducesMethodProducer;
+import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks a fan-out of producers that each wait on simulated I/O, comparing {@code @Produces}
+ * methods that return a future completed by the I/O layer with methods that block on it.
+ *
+ * <p>With the {@code threadPerTask} executor, each producer runs on its own thread: a virtual
+ * thread if the JVM supports them, and a thread of an unbounded pool otherwise. This is the
+ * configuration in which blocking {@code @Produces} methods are reasonable, since no producer waits
+ * for a pool thread that another producer is blocking.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BlockingProducerBenchmark {
+  /** Whether the {@code @Produces} methods return a pending future or block. */
+  @Param({"futures", "blocking"})
+  String style;
+
+  @Param({"pool", "threadPerTask"})
+  String executor;
+
+  @Param({"16", "64"})
+  int fanOut;
+
+  @Param({"200"})
+  int ioMicros;
+
+  private ExecutorService producerExecutor;
+  private ScheduledExecutorService ioExecutor;
+
+  @Setup
+  public void setUp() {
+    producerExecutor =
+        executor.equals("pool")
+            ? Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())
+            : newThreadPerTaskExecutor();
+    ioExecutor = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @TearDown
+  public void tearDown() {
+    producerExecutor.shutdownNow();
+    ioExecutor.shutdownNow();
+  }
+
+  /** Executes {@link #fanOut} independent producers and waits for all of them. */
+  @Benchmark
+  public List<Integer> fanOut() throws Exception {
+    List<ListenableFuture<Integer>> futures = new ArrayList<>(fanOut);
+    for (int i = 0; i < fanOut; i++) {
+      futures.add(new IoProducer(i).get());
+    }
+    return Futures.allAsList(futures).get();
+  }
+
+  /**
+   * Returns {@code Executors.newVirtualThreadPerTaskExecutor()} if it exists, or an unbounded
+   * thread pool otherwise.
+   */
+  private static ExecutorService newThreadPerTaskExecutor() {
+    try {
+      return (ExecutorService)
+          Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      return Executors.newCachedThreadPool();
+    }
+  }
+
+  /** A producer that waits for {@link #ioMicros} of simulated I/O, then returns its index. */
+  private final class IoProducer extends AbstractProducesMethodProducer<Void, Integer> {
+    private final int index;
+
+    IoProducer(int index) {
+      super(
+          ProductionComponentMonitor::noOp,
+          null, // token
+          () -> producerExecutor);
+      this.index = index;
+    }
+
+    @Override
+    protected ListenableFuture<Void> collectDependencies() {
+      return Futures.immediateFuture(null);
+    }
+
+    @Override
+    protected ListenableFuture<Integer> callProducesMethod(Void unused) throws Exception {
+      if (style.equals("blocking")) {
+        TimeUnit.MICROSECONDS.sleep(ioMicros);
+        return Futures.immediateFuture(index);
+      }
+      SettableFuture<Integer> result = SettableFuture.create();
+      ioExecutor.schedule(() -> result.set(index), ioMicros, TimeUnit.MICROSECONDS);
+      return result;
+    }
+  }
+}
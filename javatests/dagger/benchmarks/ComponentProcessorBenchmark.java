@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import static com.google.common.base.Preconditions.checkState;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.Compiler;
+import com.google.testing.compile.JavaFileObjects;
+import dagger.internal.codegen.ComponentProcessor;
+import java.util.concurrent.TimeUnit;
+import javax.tools.JavaFileObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks compiling a synthetic component with the {@link ComponentProcessor}.
+ *
+ * <p>The component's graph is a binary tree of {@code @Inject} types, so that every binding is
+ * reachable from a single entry point without deep recursion in the processor. Compare results on
+ * two revisions to measure a change to the processor.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ComponentProcessorBenchmark {
+  @Param({"1000", "10000"})
+  int bindings;
+
+  private JavaFileObject graph;
+
+  @Setup
+  public void setUp() {
+    StringBuilder source =
+        new StringBuilder()
+            .append("package test;\n")
+            .append("import dagger.Component;\n")
+            .append("import javax.inject.Inject;\n")
+            .append("final class Graph {\n")
+            .append("  @Component interface TestComponent { Binding0 root(); }\n");
+    for (int i = 0; i < bindings; i++) {
+      source.append("  static final class Binding").append(i).append(" {\n");
+      source.append("    @Inject Binding").append(i).append("(");
+      int firstChild = 2 * i + 1;
+      int secondChild = 2 * i + 2;
+      if (firstChild < bindings) {
+        source.append("Binding").append(firstChild).append(" first");
+      }
+      if (secondChild < bindings) {
+        source.append(", Binding").append(secondChild).append(" second");
+      }
+      source.append(") {}\n  }\n");
+    }
+    source.append("}\n");
+    graph = JavaFileObjects.forSourceString("test.Graph", source);
+  }
+
+  @Benchmark
+  public Compilation compile() {
+    Compilation compilation =
+        Compiler.javac().withProcessors(new ComponentProcessor()).compile(graph);
+    checkState(compilation.status().equals(Compilation.Status.SUCCESS), compilation.errors());
+    return compilation;
+  }
+}
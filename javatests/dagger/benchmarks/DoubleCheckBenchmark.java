@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import dagger.internal.AtomicDoubleCheck;
+import dagger.internal.DoubleCheck;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link DoubleCheck} and {@link AtomicDoubleCheck}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class DoubleCheckBenchmark {
+  @Param({"DoubleCheck", "AtomicDoubleCheck"})
+  String implementation;
+
+  /** A memoizing provider that has already been initialized. */
+  private Provider<Object> initialized;
+
+  @Setup
+  public void setUp() {
+    initialized = memoize(Object::new);
+    initialized.get();
+  }
+
+  Provider<Object> memoize(Provider<Object> delegate) {
+    switch (implementation) {
+      case "DoubleCheck":
+        return DoubleCheck.provider(delegate);
+      case "AtomicDoubleCheck":
+        return AtomicDoubleCheck.provider(delegate);
+      default:
+        throw new AssertionError(implementation);
+    }
+  }
+
+  @Benchmark
+  public Object warm_uncontended() {
+    return initialized.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object warm_contended() {
+    return initialized.get();
+  }
+
+  @Benchmark
+  public Object cold_uncontended() {
+    return memoize(Object::new).get();
+  }
+
+  @Benchmark
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MICROSECONDS)
+  @Warmup(iterations = 10, batchSize = ColdProviders.SIZE)
+  @Measurement(iterations = 10, batchSize = ColdProviders.SIZE)
+  @Threads(Threads.MAX)
+  public Object cold_contended(ColdProviders providers, ColdProviders.Cursor cursor) {
+    return providers.providers[cursor.next()].get();
+  }
+
+  /**
+   * Uninitialized providers that are recreated for every iteration. Every thread walks the same
+   * array in the same order, so the threads race to initialize each provider.
+   */
+  @State(Scope.Benchmark)
+  public static class ColdProviders {
+    static final int SIZE = 1 << 14;
+
+    @SuppressWarnings("unchecked") // generic array creation
+    final Provider<Object>[] providers = new Provider[SIZE];
+
+    @Setup(Level.Iteration)
+    public void setUp(DoubleCheckBenchmark benchmark) {
+      for (int i = 0; i < SIZE; i++) {
+        providers[i] = benchmark.memoize(Object::new);
+      }
+    }
+
+    /** The index of the next provider for a single benchmark thread. */
+    @State(Scope.Thread)
+    public static class Cursor {
+      private int index;
+
+      @Setup(Level.Iteration)
+      public void reset() {
+        index = 0;
+      }
+
+      int next() {
+        int next = index;
+        index = (next + 1) & (SIZE - 1);
+        return next;
+      }
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import dagger.internal.MapFactory;
+import dagger.internal.MapProviderFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link MapFactory} and {@link MapProviderFactory}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MapFactoryBenchmark {
+  @Param({"1", "4", "32"})
+  int size;
+
+  private Provider<Map<Integer, Object>> mapFactory;
+  private Provider<Map<Integer, Provider<Object>>> mapProviderFactory;
+
+  @Setup
+  public void setUp() {
+    MapFactory.Builder<Integer, Object> mapFactoryBuilder = MapFactory.builder(size);
+    MapProviderFactory.Builder<Integer, Object> mapProviderFactoryBuilder =
+        MapProviderFactory.builder(size);
+    for (int i = 0; i < size; i++) {
+      Object value = new Object();
+      Provider<Object> provider = () -> value;
+      mapFactoryBuilder.put(i, provider);
+      mapProviderFactoryBuilder.put(i, provider);
+    }
+    mapFactory = mapFactoryBuilder.build();
+    mapProviderFactory = mapProviderFactoryBuilder.build();
+  }
+
+  @Benchmark
+  public Map<Integer, Object> mapFactory_uncontended() {
+    return mapFactory.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Map<Integer, Object> mapFactory_contended() {
+    return mapFactory.get();
+  }
+
+  @Benchmark
+  public Map<Integer, Provider<Object>> mapProviderFactory_uncontended() {
+    return mapProviderFactory.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Map<Integer, Provider<Object>> mapProviderFactory_contended() {
+    return mapProviderFactory.get();
+  }
+}
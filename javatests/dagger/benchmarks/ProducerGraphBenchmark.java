@@ -0,0 +1,117 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import dagger.producers.Producer;
+import dagger.producers.internal.AbstractProducesMethodProducer;
+import dagger.producers.internal.Producers;
+import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks for executing a graph of {@link AbstractProducesMethodProducer}s whose dependencies
+ * are already done, with and without {@linkplain dagger.producers.Produces#inline() inline}
+ * execution. Run with {@code -prof gc} to compare the allocations per graph execution.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProducerGraphBenchmark {
+  @Param({"false", "true"})
+  boolean inline;
+
+  @Param({"10", "100"})
+  int nodes;
+
+  /** Executes a chain of producers, each of which depends on the previous one. */
+  @Benchmark
+  public Integer chain() throws Exception {
+    Producer<Integer> producer = Producers.immediateProducer(0);
+    for (int i = 0; i < nodes; i++) {
+      producer = new SumProducer(inline, producer);
+    }
+    return producer.get().get();
+  }
+
+  /** Executes a chain of producers, each of which depends on the previous one and on a leaf. */
+  @Benchmark
+  public Integer ladder() throws Exception {
+    Producer<Integer> leaf = Producers.immediateProducer(1);
+    Producer<Integer> producer = Producers.immediateProducer(0);
+    for (int i = 0; i < nodes; i++) {
+      producer = new SumProducer(inline, producer, leaf);
+    }
+    return producer.get().get();
+  }
+
+  /** A producer of one more than the sum of its dependencies, run on a direct executor. */
+  private static final class SumProducer
+      extends AbstractProducesMethodProducer<List<Object>, Integer> {
+    private final boolean inline;
+    private final Producer<?>[] dependencies;
+
+    SumProducer(boolean inline, Producer<?>... dependencies) {
+      super(
+          ProductionComponentMonitor::noOp,
+          null, // token
+          () -> (Executor) MoreExecutors.directExecutor());
+      this.inline = inline;
+      this.dependencies = dependencies;
+    }
+
+    @Override
+    protected boolean executesInline() {
+      return inline;
+    }
+
+    @Override
+    protected ListenableFuture<List<Object>> collectDependencies() {
+      ListenableFuture<?>[] futures = new ListenableFuture<?>[dependencies.length];
+      for (int i = 0; i < dependencies.length; i++) {
+        futures[i] = dependencies[i].get();
+      }
+      return Producers.allAsList(futures);
+    }
+
+    @Override
+    protected ListenableFuture<Integer> callProducesMethod(List<Object> values) {
+      int sum = 1;
+      for (Object value : values) {
+        sum += (Integer) value;
+      }
+      return Futures.immediateFuture(sum);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import dagger.Lazy;
+import dagger.internal.ProviderOfLazy;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link ProviderOfLazy}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProviderOfLazyBenchmark {
+  private final Provider<Lazy<Object>> providerOfLazy = ProviderOfLazy.create(Object::new);
+
+  /** Creates a new {@link Lazy} without ever calling {@link Lazy#get()}. */
+  @Benchmark
+  public Lazy<Object> lazyCreation() {
+    return providerOfLazy.get();
+  }
+
+  /** Creates a new {@link Lazy} and resolves it once, as a typical injection site would. */
+  @Benchmark
+  public Object lazyCreationAndGet_uncontended() {
+    return providerOfLazy.get().get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Object lazyCreationAndGet_contended() {
+    return providerOfLazy.get().get();
+  }
+}
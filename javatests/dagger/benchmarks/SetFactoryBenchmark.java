@@ -0,0 +1,79 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import dagger.internal.SetFactory;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for {@link SetFactory}. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SetFactoryBenchmark {
+  @Param({"1", "4", "32"})
+  int individualProviders;
+
+  @Param({"0", "2"})
+  int collectionProviders;
+
+  private Provider<Set<Object>> setFactory;
+
+  @Setup
+  public void setUp() {
+    SetFactory.Builder<Object> builder =
+        SetFactory.builder(individualProviders, collectionProviders);
+    for (int i = 0; i < individualProviders; i++) {
+      Object element = new Object();
+      builder.addProvider(() -> element);
+    }
+    for (int i = 0; i < collectionProviders; i++) {
+      Collection<Object> elements = Arrays.asList(new Object(), new Object());
+      builder.addCollectionProvider(() -> elements);
+    }
+    setFactory = builder.build();
+  }
+
+  @Benchmark
+  public Set<Object> uncontended() {
+    return setFactory.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Set<Object> contended() {
+    return setFactory.get();
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks;
+
+import dagger.benchmarks.components.DaggerSwitchingProviderComponent;
+import dagger.benchmarks.components.SwitchingProviderComponent;
+import dagger.benchmarks.components.SwitchingProviderComponent.Scoped;
+import dagger.benchmarks.components.SwitchingProviderComponent.Unscoped;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import javax.inject.Provider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Benchmarks for the {@code SwitchingProvider}s generated in fastInit mode. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SwitchingProviderBenchmark {
+  /** Providers requested from a single, already-created component. */
+  @State(Scope.Benchmark)
+  public static class Providers {
+    Provider<Unscoped> unscoped;
+    Provider<Scoped> scoped;
+    Provider<Set<Object>> set;
+
+    @Setup
+    public void setUp() {
+      SwitchingProviderComponent component = DaggerSwitchingProviderComponent.create();
+      unscoped = component.unscopedProvider();
+      scoped = component.scopedProvider();
+      set = component.setProvider();
+      scoped.get();
+    }
+  }
+
+  @Benchmark
+  public Unscoped unscoped_uncontended(Providers providers) {
+    return providers.unscoped.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Unscoped unscoped_contended(Providers providers) {
+    return providers.unscoped.get();
+  }
+
+  @Benchmark
+  public Scoped scoped_warm_uncontended(Providers providers) {
+    return providers.scoped.get();
+  }
+
+  @Benchmark
+  @Threads(Threads.MAX)
+  public Scoped scoped_warm_contended(Providers providers) {
+    return providers.scoped.get();
+  }
+
+  @Benchmark
+  public Set<Object> set_uncontended(Providers providers) {
+    return providers.set.get();
+  }
+
+  /** Creates a new component and resolves a scoped binding from it for the first time. */
+  @Benchmark
+  public Scoped scoped_cold() {
+    return DaggerSwitchingProviderComponent.create().scopedProvider().get();
+  }
+}
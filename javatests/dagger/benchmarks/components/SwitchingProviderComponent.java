@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks.components;
+
+import dagger.Component;
+import java.util.Set;
+import javax.inject.Inject;
+import javax.inject.Provider;
+import javax.inject.Singleton;
+
+/**
+ * A component whose providers are generated as {@code SwitchingProvider}s when compiled with
+ * {@code -Adagger.fastInit=enabled}.
+ */
+@Singleton
+@Component(modules = SwitchingProviderModule.class)
+public interface SwitchingProviderComponent {
+  Provider<Unscoped> unscopedProvider();
+
+  Provider<Scoped> scopedProvider();
+
+  Provider<Set<Object>> setProvider();
+
+  /** A type with an unscoped {@link Inject} constructor. */
+  final class Unscoped {
+    @Inject
+    Unscoped() {}
+  }
+
+  /** A type with a {@link Singleton} {@link Inject} constructor. */
+  @Singleton
+  final class Scoped {
+    @Inject
+    Scoped(Unscoped unscoped) {}
+  }
+}
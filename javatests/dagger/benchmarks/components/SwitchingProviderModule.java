@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.benchmarks.components;
+
+import dagger.Module;
+import dagger.Provides;
+import dagger.multibindings.IntoSet;
+
+@Module
+final class SwitchingProviderModule {
+  @Provides
+  @IntoSet
+  static Object first() {
+    return new Object();
+  }
+
+  @Provides
+  @IntoSet
+  static Object second(SwitchingProviderComponent.Unscoped unscoped) {
+    return unscoped;
+  }
+
+  @Provides
+  @IntoSet
+  static Object third(SwitchingProviderComponent.Scoped scoped) {
+    return scoped;
+  }
+}
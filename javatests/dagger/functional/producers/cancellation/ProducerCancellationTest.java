@@ -21,6 +21,10 @@ import static com.google.common.truth.Truth.assertThat;
 import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import dagger.functional.producers.cancellation.CancellationComponent.Dependency;
+import dagger.producers.Deadline;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.junit.runners.JUnit4;
@@ -61,6 +65,23 @@ public class ProducerCancellationTest {
     tester.assertNotStarted("entryPoint2", "entryPoint3");
   }
 
+  @Test
+  public void expiredDeadline_cancelsAllRunningNodes() {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      Deadline deadline = Deadline.after(0, TimeUnit.SECONDS);
+      ListenableFuture<String> entryPoint1 =
+          deadline.cancelAtDeadline(component.entryPoint1(), scheduler);
+      assertThat(entryPoint1.isCancelled()).isTrue();
+
+      tester.assertCancelled("leaf2", "leaf3").only();
+      assertThat(component.entryPoint3().isCancelled()).isTrue();
+      tester.assertNotStarted("entryPoint3");
+    } finally {
+      scheduler.shutdownNow();
+    }
+  }
+
   @SuppressWarnings({"CheckReturnValue", "FutureReturnValueIgnored"})
   @Test
   public void cancellingNonEntryPointProducer_doesNotCancelUnderlyingTask() {
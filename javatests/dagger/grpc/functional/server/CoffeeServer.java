@@ -16,7 +16,10 @@
 
 package dagger.grpc.functional.server;
 
+import com.google.protos.test.BaristaGrpc;
+import dagger.grpc.server.ForGrpcService;
 import dagger.grpc.server.InProcessServerModule;
+import dagger.grpc.server.ProxyServerCallHandler.ServiceDefinitionFactory;
 import io.grpc.Server;
 import java.io.IOException;
 
@@ -33,6 +36,9 @@ abstract class CoffeeServer<T extends CoffeeServer<T>> {
 
   abstract CountingInterceptor countingInterceptor();
 
+  @ForGrpcService(BaristaGrpc.class)
+  abstract ServiceDefinitionFactory baristaServiceDefinitionFactory();
+
   interface Builder<T extends CoffeeServer<T>> {
     Builder<T> inProcessServerModule(InProcessServerModule serverModule);
 
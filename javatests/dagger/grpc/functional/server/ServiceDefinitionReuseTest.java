@@ -0,0 +1,54 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.grpc.functional.server;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import dagger.grpc.server.InProcessServerModule;
+import dagger.grpc.server.ProxyServerCallHandler.ServiceDefinitionFactory;
+import io.grpc.Metadata;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ServiceDefinitionReuseTest {
+
+  @Test
+  public void unscopedService_buildsServiceDefinitionOnce() {
+    ServiceDefinitionFactory factory =
+        serviceDefinitionFactory(DaggerCoffeeServerWithUnscopedService.builder());
+    assertThat(factory.getServiceDefinition(new Metadata()))
+        .isSameAs(factory.getServiceDefinition(new Metadata()));
+  }
+
+  @Test
+  public void callScopedService_buildsServiceDefinitionForEachCall() {
+    ServiceDefinitionFactory factory =
+        serviceDefinitionFactory(DaggerCoffeeServerWithCallScopeService.builder());
+    assertThat(factory.getServiceDefinition(new Metadata()))
+        .isNotSameAs(factory.getServiceDefinition(new Metadata()));
+  }
+
+  private static ServiceDefinitionFactory serviceDefinitionFactory(
+      CoffeeServer.Builder<?> coffeeServerBuilder) {
+    return coffeeServerBuilder
+        .inProcessServerModule(InProcessServerModule.serverNamed("ServiceDefinitionReuseTest"))
+        .build()
+        .baristaServiceDefinitionFactory();
+  }
+}
@@ -0,0 +1,236 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.Uninterruptibles;
+import dagger.Lazy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.inject.Provider;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class AtomicDoubleCheckTest {
+  @Test
+  public void provider_nullPointerException() {
+    try {
+      AtomicDoubleCheck.provider(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  @Test
+  public void lazy_nullPointerException() {
+    try {
+      AtomicDoubleCheck.lazy(null);
+      fail();
+    } catch (NullPointerException expected) {
+    }
+  }
+
+  private static final Provider<Object> ATOMIC_DOUBLE_CHECK_OBJECT_PROVIDER =
+      AtomicDoubleCheck.provider(Object::new);
+
+  @Test
+  public void doubleWrapping_provider() {
+    assertThat(AtomicDoubleCheck.provider(ATOMIC_DOUBLE_CHECK_OBJECT_PROVIDER))
+        .isSameAs(ATOMIC_DOUBLE_CHECK_OBJECT_PROVIDER);
+  }
+
+  @Test
+  public void doubleWrapping_lazy() {
+    assertThat(AtomicDoubleCheck.lazy(ATOMIC_DOUBLE_CHECK_OBJECT_PROVIDER))
+        .isSameAs(ATOMIC_DOUBLE_CHECK_OBJECT_PROVIDER);
+  }
+
+  @Test
+  public void doubleWrapping_doubleCheck() {
+    Provider<Object> doubleCheck = DoubleCheck.provider(Object::new);
+    assertThat(AtomicDoubleCheck.provider(doubleCheck)).isSameAs(doubleCheck);
+  }
+
+  @Test
+  public void get() throws Exception {
+    int numThreads = 10;
+    ExecutorService executor = Executors.newFixedThreadPool(numThreads);
+
+    final CountDownLatch latch = new CountDownLatch(numThreads);
+    LatchedProvider provider = new LatchedProvider(latch);
+    final Lazy<Object> lazy = AtomicDoubleCheck.lazy(provider);
+
+    List<Callable<Object>> tasks = Lists.newArrayListWithCapacity(numThreads);
+    for (int i = 0; i < numThreads; i++) {
+      tasks.add(
+          () -> {
+            latch.countDown();
+            return lazy.get();
+          });
+    }
+
+    List<Future<Object>> futures = executor.invokeAll(tasks);
+
+    assertThat(provider.provisions.get()).isEqualTo(1);
+    Set<Object> results = Sets.newIdentityHashSet();
+    for (Future<Object> future : futures) {
+      results.add(future.get());
+    }
+    assertThat(results).hasSize(1);
+  }
+
+  @Test
+  public void get_waitsForSlowInitialization() throws Exception {
+    CountDownLatch initializationStarted = new CountDownLatch(1);
+    CountDownLatch finishInitialization = new CountDownLatch(1);
+    Object object = new Object();
+    Provider<Object> atomicDoubleCheck =
+        AtomicDoubleCheck.provider(
+            () -> {
+              initializationStarted.countDown();
+              Uninterruptibles.awaitUninterruptibly(finishInitialization);
+              return object;
+            });
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    Future<Object> initializer = executor.submit(atomicDoubleCheck::get);
+    initializationStarted.await();
+    Future<Object> waiter = executor.submit(atomicDoubleCheck::get);
+    assertThat(waiter.isDone()).isFalse();
+
+    finishInitialization.countDown();
+    assertThat(initializer.get()).isSameAs(object);
+    assertThat(waiter.get()).isSameAs(object);
+  }
+
+  @Test
+  public void get_retriesAfterException() {
+    AtomicInteger invocationCount = new AtomicInteger();
+    Object object = new Object();
+    Provider<Object> atomicDoubleCheck =
+        AtomicDoubleCheck.provider(
+            () -> {
+              if (invocationCount.incrementAndGet() == 1) {
+                throw new UnsupportedOperationException();
+              }
+              return object;
+            });
+    try {
+      atomicDoubleCheck.get();
+      fail();
+    } catch (UnsupportedOperationException expected) {}
+    assertThat(atomicDoubleCheck.get()).isSameAs(object);
+    assertThat(atomicDoubleCheck.get()).isSameAs(object);
+    assertThat(invocationCount.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void get_nullValue() {
+    AtomicInteger invocationCount = new AtomicInteger();
+    Provider<Object> atomicDoubleCheck =
+        AtomicDoubleCheck.provider(
+            () -> {
+              invocationCount.incrementAndGet();
+              return null;
+            });
+    assertThat(atomicDoubleCheck.get()).isNull();
+    assertThat(atomicDoubleCheck.get()).isNull();
+    assertThat(invocationCount.get()).isEqualTo(1);
+  }
+
+  private static class LatchedProvider implements Provider<Object> {
+    final AtomicInteger provisions;
+    final CountDownLatch latch;
+
+    LatchedProvider(CountDownLatch latch) {
+      this.latch = latch;
+      this.provisions = new AtomicInteger();
+    }
+
+    @Override
+    public Object get() {
+      if (latch != null) {
+        Uninterruptibles.awaitUninterruptibly(latch);
+      }
+      provisions.incrementAndGet();
+      return new Object();
+    }
+  }
+
+  @Test public void reentranceWithoutCondition_throwsStackOverflow() {
+    final AtomicReference<Provider<Object>> atomicDoubleCheckReference =
+        new AtomicReference<>();
+    Provider<Object> atomicDoubleCheck =
+        AtomicDoubleCheck.provider(() -> atomicDoubleCheckReference.get().get());
+    atomicDoubleCheckReference.set(atomicDoubleCheck);
+    try {
+      atomicDoubleCheck.get();
+      fail();
+    } catch (StackOverflowError expected) {}
+  }
+
+  @Test public void reentranceReturningSameInstance() {
+    final AtomicReference<Provider<Object>> atomicDoubleCheckReference =
+        new AtomicReference<>();
+    final AtomicInteger invocationCount = new AtomicInteger();
+    final Object object = new Object();
+    Provider<Object> atomicDoubleCheck = AtomicDoubleCheck.provider(() -> {
+        if (invocationCount.incrementAndGet() == 1) {
+         atomicDoubleCheckReference.get().get();
+       }
+       return object;
+     });
+    atomicDoubleCheckReference.set(atomicDoubleCheck);
+    assertThat(atomicDoubleCheck.get()).isSameAs(object);
+  }
+
+  @Test public void reentranceReturningDifferentInstances_throwsIllegalStateException() {
+    final AtomicReference<Provider<Object>> atomicDoubleCheckReference =
+        new AtomicReference<>();
+    final AtomicInteger invocationCount = new AtomicInteger();
+    Provider<Object> atomicDoubleCheck = AtomicDoubleCheck.provider(() -> {
+       if (invocationCount.incrementAndGet() == 1) {
+         atomicDoubleCheckReference.get().get();
+       }
+       return new Object();
+     });
+    atomicDoubleCheckReference.set(atomicDoubleCheck);
+    try {
+      atomicDoubleCheck.get();
+      fail();
+    } catch (IllegalStateException expected) {}
+  }
+
+  @Test
+  public void instanceFactoryAsLazyDoesNotWrap() {
+    Factory<Object> factory = InstanceFactory.create(new Object());
+    assertThat(AtomicDoubleCheck.lazy(factory)).isSameAs(factory);
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class LockingMemoizedSentinelTest {
+  @Test
+  public void reentrantCheck_uninitialized() {
+    Object instance = new Object();
+    assertThat(LockingMemoizedSentinel.reentrantCheck(new LockingMemoizedSentinel(), instance))
+        .isSameAs(instance);
+  }
+
+  @Test
+  public void reentrantCheck_sameInstance() {
+    Object instance = new Object();
+    assertThat(LockingMemoizedSentinel.reentrantCheck(instance, instance)).isSameAs(instance);
+  }
+
+  @Test
+  public void reentrantCheck_differentInstances_throwsIllegalStateException() {
+    try {
+      LockingMemoizedSentinel.reentrantCheck(new Object(), new Object());
+      fail();
+    } catch (IllegalStateException expected) {}
+  }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public class ParallelInitializationTest {
+  @Test
+  public void run_initializesDependenciesFirst() throws InterruptedException {
+    final int[][] dependencies = {{}, {0}, {0}, {1, 2}, {}};
+    final AtomicIntegerArray initialized = new AtomicIntegerArray(dependencies.length);
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      ParallelInitialization.run(
+          executor,
+          dependencies,
+          new ParallelInitialization.Initializer() {
+            @Override
+            public Object initialize(int index) {
+              for (int dependency : dependencies[index]) {
+                assertThat(initialized.get(dependency)).isEqualTo(1);
+              }
+              initialized.incrementAndGet(index);
+              return index;
+            }
+          });
+    } finally {
+      executor.shutdown();
+    }
+    for (int i = 0; i < dependencies.length; i++) {
+      assertThat(initialized.get(i)).isEqualTo(1);
+    }
+  }
+
+  @Test
+  public void run_noBindings() throws InterruptedException {
+    ParallelInitialization.run(
+        MoreExecutors.directExecutor(),
+        new int[0][],
+        new ParallelInitialization.Initializer() {
+          @Override
+          public Object initialize(int index) {
+            throw new AssertionError(index);
+          }
+        });
+  }
+
+  @Test
+  public void run_failure_rethrowsAndSkipsDependents() throws InterruptedException {
+    final List<Integer> initialized = Collections.synchronizedList(new ArrayList<Integer>());
+    final IllegalStateException exception = new IllegalStateException("failed");
+    try {
+      ParallelInitialization.run(
+          MoreExecutors.directExecutor(),
+          new int[][] {{}, {0}},
+          new ParallelInitialization.Initializer() {
+            @Override
+            public Object initialize(int index) {
+              initialized.add(index);
+              throw exception;
+            }
+          });
+      fail();
+    } catch (IllegalStateException expected) {
+      assertThat(expected).isSameAs(exception);
+    }
+    assertThat(initialized).containsExactly(0);
+  }
+
+  @Test
+  public void run_rejectedExecution_runsOnCallingThread() throws InterruptedException {
+    final Thread callingThread = Thread.currentThread();
+    ParallelInitialization.run(
+        new Executor() {
+          @Override
+          public void execute(Runnable command) {
+            throw new RejectedExecutionException();
+          }
+        },
+        new int[][] {{}, {0}},
+        new ParallelInitialization.Initializer() {
+          @Override
+          public Object initialize(int index) {
+            assertThat(Thread.currentThread()).isSameAs(callingThread);
+            return index;
+          }
+        });
+  }
+}
@@ -74,6 +74,47 @@ public class SetFactoryTest {
     assertThat(factory.get()).containsExactly(2, 12, 24, 25, 34, 35);
   }
 
+  @Test
+  public void individualProvidersOnly_removesDuplicates() {
+    Factory<Set<Integer>> factory =
+        SetFactory.<Integer>builder(3, 0)
+            .addProvider(() -> 1)
+            .addProvider(() -> 2)
+            .addProvider(() -> 1)
+            .build();
+    assertThat(factory.get()).containsExactly(1, 2);
+    assertThat(factory.get()).isEqualTo(ImmutableSet.of(1, 2));
+    assertThat(factory.get().hashCode()).isEqualTo(ImmutableSet.of(1, 2).hashCode());
+  }
+
+  @Test
+  public void smallSetsAreUnmodifiable() {
+    Factory<Set<Integer>> factory =
+        SetFactory.<Integer>builder(2, 1)
+            .addProvider(() -> 1)
+            .addProvider(() -> 2)
+            .addCollectionProvider(() -> ImmutableSet.of(2, 3))
+            .build();
+    Set<Integer> set = factory.get();
+    assertThat(set).containsExactly(1, 2, 3);
+    thrown.expect(UnsupportedOperationException.class);
+    set.add(4);
+  }
+
+  @Test
+  public void largeSets() {
+    SetFactory.Builder<Integer> builder = SetFactory.builder(100, 1);
+    ImmutableSet.Builder<Integer> expected = ImmutableSet.builder();
+    for (int i = 0; i < 100; i++) {
+      int value = i;
+      builder.addProvider(() -> value);
+      expected.add(value);
+    }
+    builder.addCollectionProvider(() -> ImmutableSet.of(0, 100));
+    expected.add(100);
+    assertThat(builder.build().get()).containsExactlyElementsIn(expected.build());
+  }
+
   private static Provider<Integer> incrementingIntegerProvider(int seed) {
     final AtomicInteger value = new AtomicInteger(seed);
     return value::getAndIncrement;
@@ -401,6 +401,244 @@ public class ComponentProcessorTest {
         .containsElementsIn(generatedComponent);
   }
 
+  @Test
+  public void componentWithScope_monitorFreeScoping() {
+    JavaFileObject injectableTypeFile = JavaFileObjects.forSourceLines("test.SomeInjectableType",
+        "package test;",
+        "",
+        "import javax.inject.Inject;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Singleton",
+        "final class SomeInjectableType {",
+        "  @Inject SomeInjectableType() {}",
+        "}");
+    JavaFileObject componentFile = JavaFileObjects.forSourceLines("test.SimpleComponent",
+        "package test;",
+        "",
+        "import dagger.Component;",
+        "import javax.inject.Singleton;",
+        "",
+        "@Singleton",
+        "@Component",
+        "interface SimpleComponent {",
+        "  SomeInjectableType someInjectableType();",
+        "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerSimpleComponent")
+            .addLines(
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerSimpleComponent implements SimpleComponent {")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  private Provider<SomeInjectableType> someInjectableTypeProvider;",
+                "",
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize(final Builder builder) {",
+                "    this.someInjectableTypeProvider =",
+                "        AtomicDoubleCheck.provider(SomeInjectableType_Factory.create());",
+                "  }",
+                "",
+                "  @Override",
+                "  public SomeInjectableType someInjectableType() {",
+                "    return someInjectableTypeProvider.get();",
+                "  }")
+            .addLinesIn(
+                FAST_INIT_MODE,
+                "  private volatile Object someInjectableType = new LockingMemoizedSentinel();",
+                "",
+                "  @Override",
+                "  public SomeInjectableType someInjectableType() {",
+                "    Object local = someInjectableType;",
+                "    if (local instanceof LockingMemoizedSentinel) {",
+                "      LockingMemoizedSentinel sentinel = (LockingMemoizedSentinel) local;",
+                "      sentinel.lock();",
+                "      try {",
+                "        local = someInjectableType;",
+                "        if (local instanceof LockingMemoizedSentinel) {",
+                "          local = new SomeInjectableType();",
+                "          someInjectableType =",
+                "              LockingMemoizedSentinel.reentrantCheck(someInjectableType, local);",
+                "        }",
+                "      } finally {",
+                "        sentinel.unlock();",
+                "      }",
+                "    }",
+                "    return (SomeInjectableType) local;",
+                "  }")
+            .build();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode.javacopts().append("-Adagger.experimentalMonitorFreeScoping=enabled"))
+            .compile(injectableTypeFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  @Test
+  public void componentWithScope_monitorFreeScoping_doesNotShadowFields() {
+    JavaFileObject moduleFile =
+        JavaFileObjects.forSourceLines(
+            "test.Sentinel",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Module",
+            "final class Sentinel {",
+            "  @Provides @Singleton String string() { return \"\"; }",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.SimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = Sentinel.class)",
+            "interface SimpleComponent {",
+            "  String string();",
+            "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerSimpleComponent")
+            .addLines(
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerSimpleComponent implements SimpleComponent {")
+            .addLinesIn(
+                FAST_INIT_MODE,
+                "  private Sentinel sentinel;",
+                "",
+                "  private volatile Object string = new LockingMemoizedSentinel();",
+                "",
+                "  @Override",
+                "  public String string() {",
+                "    Object local = string;",
+                "    if (local instanceof LockingMemoizedSentinel) {",
+                "      LockingMemoizedSentinel sentinel2 = (LockingMemoizedSentinel) local;",
+                "      sentinel2.lock();",
+                "      try {",
+                "        local = string;",
+                "        if (local instanceof LockingMemoizedSentinel) {",
+                "          local = Sentinel_StringFactory.proxyString(sentinel);",
+                "          string = LockingMemoizedSentinel.reentrantCheck(string, local);",
+                "        }",
+                "      } finally {",
+                "        sentinel2.unlock();",
+                "      }",
+                "    }",
+                "    return (String) local;",
+                "  }")
+            .addLines("}")
+            .build();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode.javacopts().append("-Adagger.experimentalMonitorFreeScoping=enabled"))
+            .compile(moduleFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  @Test
+  public void componentWithScope_scopedBindingWarmUp() {
+    JavaFileObject aFile =
+        JavaFileObjects.forSourceLines(
+            "test.A",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class A {",
+            "  @Inject A() {}",
+            "}");
+    JavaFileObject bFile =
+        JavaFileObjects.forSourceLines(
+            "test.B",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "final class B {",
+            "  @Inject B(A a) {}",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.SimpleComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.concurrent.Executor;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component",
+            "interface SimpleComponent {",
+            "  B b();",
+            "",
+            "  void warmUp(Executor executor) throws InterruptedException;",
+            "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerSimpleComponent")
+            .addLines(
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerSimpleComponent implements SimpleComponent {",
+                "  @Override",
+                "  public void warmUp(Executor executor) throws InterruptedException {",
+                "    ParallelInitialization.run(",
+                "        executor,",
+                "        new int[][] {{}, {0}},",
+                "        new ParallelInitialization.Initializer() {",
+                "          @Override",
+                "          public Object initialize(int index) {",
+                "            return warmUpBinding(index);",
+                "          }",
+                "        });",
+                "  }")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  private Object warmUpBinding(int index) {",
+                "    switch (index) {",
+                "      case 0: // test.A",
+                "      return aProvider.get();",
+                "      case 1: // test.B",
+                "      return bProvider.get();",
+                "      default: throw new AssertionError(index);",
+                "    }",
+                "  }")
+            .build();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode.javacopts().append("-Adagger.experimentalScopedBindingWarmUp=enabled"))
+            .compile(aFile, bFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerSimpleComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
   @Test public void simpleComponentWithNesting() {
     JavaFileObject nestedTypesFile = JavaFileObjects.forSourceLines("test.OuterType",
         "package test;",
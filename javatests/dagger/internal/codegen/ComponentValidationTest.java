@@ -356,4 +356,65 @@ public final class ComponentValidationTest {
     Compilation compilation = daggerCompiler().compile(abstractModule, subclassedModule, component);
     assertThat(compilation).succeeded();
   }
+
+  @Test
+  public void warmUpMethodWithoutInterruptedException() {
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.concurrent.Executor;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  void warmUp(Executor executor);",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions("-Adagger.experimentalScopedBindingWarmUp=enabled")
+            .compile(component);
+    assertThat(compilation).failed();
+    assertThat(compilation)
+        .hadErrorContaining("warmUp(Executor) methods must throw InterruptedException")
+        .inFile(component)
+        .onLine(8);
+  }
+
+  @Test
+  public void warmUpMethodOnSubcomponent() {
+    JavaFileObject subcomponent =
+        JavaFileObjects.forSourceLines(
+            "test.TestSubcomponent",
+            "package test;",
+            "",
+            "import dagger.Subcomponent;",
+            "import java.util.concurrent.Executor;",
+            "",
+            "@Subcomponent",
+            "interface TestSubcomponent {",
+            "  void warmUp(Executor executor) throws InterruptedException;",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  TestSubcomponent subcomponent();",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions("-Adagger.experimentalScopedBindingWarmUp=enabled")
+            .compile(subcomponent, component);
+    assertThat(compilation).failed();
+    assertThat(compilation)
+        .hadErrorContaining("warmUp(Executor) methods may only be declared on @Component types")
+        .inFile(subcomponent)
+        .onLine(8);
+  }
 }
@@ -0,0 +1,194 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.internal.codegen;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.Compilers.daggerCompiler;
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.testing.compile.Compilation;
+import com.google.testing.compile.JavaFileObjects;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import javax.tools.JavaFileObject;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DaggerStatisticsTest {
+  @Test
+  public void statisticsOutput() throws IOException {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.multibindings.IntoSet;",
+            "",
+            "@Module",
+            "interface TestModule {",
+            "  @Provides @IntoSet static String one() { return \"one\"; }",
+            "  @Provides @IntoSet static String two() { return \"two\"; }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.Set;",
+            "",
+            "@Component(modules = TestModule.class)",
+            "interface TestComponent {",
+            "  Set<String> strings();",
+            "}");
+    File output = File.createTempFile("dagger-statistics", ".json");
+    output.deleteOnExit();
+
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions("-Adagger.statisticsOutput=" + output.getPath())
+            .compile(module, component);
+    assertThat(compilation).succeeded();
+
+    String statistics = new String(Files.readAllBytes(output.toPath()), UTF_8);
+    assertThat(statistics).contains("\"totalRuntimeMillis\"");
+    assertThat(statistics).contains("\"ComponentProcessingStep\"");
+    assertThat(statistics).contains("\"test.TestComponent\": {\"phaseMillis\"");
+    assertThat(statistics).contains("\"bindingsPerComponent\": {\"test.TestComponent\": ");
+    assertThat(statistics).contains("\"maxDependencyDepth\": 2");
+    assertThat(statistics)
+        .contains(
+            "\"multibindingSizes\": "
+                + "{\"test.TestComponent\": {\"java.util.Set<java.lang.String>\": 2}}");
+  }
+
+  @Test
+  public void subcomponentsAreKeyedByComponentPath() throws IOException {
+    JavaFileObject child =
+        JavaFileObjects.forSourceLines(
+            "test.Child",
+            "package test;",
+            "",
+            "import dagger.Subcomponent;",
+            "",
+            "@Subcomponent",
+            "interface Child {}");
+    JavaFileObject parentModule =
+        JavaFileObjects.forSourceLines(
+            "test.ParentModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "",
+            "@Module(subcomponents = Child.class)",
+            "interface ParentModule {}");
+    JavaFileObject parentOne =
+        JavaFileObjects.forSourceLines(
+            "test.ParentOne",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component(modules = ParentModule.class)",
+            "interface ParentOne {",
+            "  Child child();",
+            "}");
+    JavaFileObject parentTwo =
+        JavaFileObjects.forSourceLines(
+            "test.ParentTwo",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component(modules = ParentModule.class)",
+            "interface ParentTwo {",
+            "  Child child();",
+            "}");
+
+    String statistics = compileWithStatistics(child, parentModule, parentOne, parentTwo);
+    assertThat(statistics).contains("\"test.ParentOne → test.Child\": ");
+    assertThat(statistics).contains("\"test.ParentTwo → test.Child\": ");
+  }
+
+  @Test
+  public void dependencyCycleCountsAsOneLink() throws IOException {
+    JavaFileObject a =
+        JavaFileObjects.forSourceLines(
+            "test.A",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class A {",
+            "  @Inject A(B b) {}",
+            "}");
+    JavaFileObject b =
+        JavaFileObjects.forSourceLines(
+            "test.B",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "import javax.inject.Provider;",
+            "",
+            "final class B {",
+            "  @Inject B(Provider<A> a) {}",
+            "}");
+    JavaFileObject c =
+        JavaFileObjects.forSourceLines(
+            "test.C",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "final class C {",
+            "  @Inject C(A a) {}",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  B b();",
+            "  C c();",
+            "}");
+
+    // A and B form one link whichever of them is visited first, and C adds a second.
+    String statistics = compileWithStatistics(a, b, c, component);
+    assertThat(statistics).contains("\"maxDependencyDepth\": 2");
+  }
+
+  private static String compileWithStatistics(JavaFileObject... sources) throws IOException {
+    File output = File.createTempFile("dagger-statistics", ".json");
+    output.deleteOnExit();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions("-Adagger.statisticsOutput=" + output.getPath())
+            .compile(sources);
+    assertThat(compilation).succeeded();
+    return new String(Files.readAllBytes(output.toPath()), UTF_8);
+  }
+}
@@ -408,6 +408,79 @@ public class ProducerModuleFactoryGeneratorTest {
         .generatesSources(factoryFile);
   }
 
+  @Test public void singleProducesMethodInline() {
+    JavaFileObject moduleFile = JavaFileObjects.forSourceLines("test.TestModule",
+        "package test;",
+        "",
+        "import com.google.common.util.concurrent.ListenableFuture;",
+        "import dagger.producers.ProducerModule;",
+        "import dagger.producers.Produces;",
+        "",
+        "@ProducerModule",
+        "final class TestModule {",
+        "  @Produces(inline = true) ListenableFuture<String> produceString() {",
+        "    return null;",
+        "  }",
+        "}");
+    JavaFileObject factoryFile =
+        JavaFileObjects.forSourceLines(
+            "TestModule_ProduceStringFactory",
+            "package test;",
+            "",
+            "import com.google.common.util.concurrent.Futures;",
+            "import com.google.common.util.concurrent.ListenableFuture;",
+            "import dagger.producers.internal.AbstractProducesMethodProducer;",
+            "import dagger.producers.monitoring.ProducerToken;",
+            "import dagger.producers.monitoring.ProductionComponentMonitor;",
+            "import java.util.concurrent.Executor;",
+            IMPORT_GENERATED_ANNOTATION,
+            "import javax.inject.Provider;",
+            "",
+            "@SuppressWarnings(\"FutureReturnValueIgnored\")",
+            GENERATED_ANNOTATION,
+            "public final class TestModule_ProduceStringFactory",
+            "    extends AbstractProducesMethodProducer<Void, String> {",
+            "  private final TestModule module;",
+            "",
+            "  private TestModule_ProduceStringFactory(",
+            "      TestModule module,",
+            "      Provider<Executor> executorProvider,",
+            "      Provider<ProductionComponentMonitor> productionComponentMonitorProvider) {",
+            "    super(",
+            "        productionComponentMonitorProvider,",
+            "        ProducerToken.create(TestModule_ProduceStringFactory.class),",
+            "        executorProvider);",
+            "    this.module = module;",
+            "  }",
+            "",
+            "  public static TestModule_ProduceStringFactory create(",
+            "      TestModule module,",
+            "      Provider<Executor> executorProvider,",
+            "      Provider<ProductionComponentMonitor> productionComponentMonitorProvider) {",
+            "    return new TestModule_ProduceStringFactory(",
+            "        module, executorProvider, productionComponentMonitorProvider);",
+            "  }",
+            "",
+            "  @Override protected ListenableFuture<Void> collectDependencies() {",
+            "    return Futures.<Void>immediateFuture(null);",
+            "  }",
+            "",
+            "  @Override public ListenableFuture<String> callProducesMethod(Void ignoredVoidArg) {",
+            "    return module.produceString();",
+            "  }",
+            "",
+            "  @Override protected boolean executesInline() {",
+            "    return true;",
+            "  }",
+            "}");
+    assertAbout(javaSource())
+        .that(moduleFile)
+        .processedWith(new ComponentProcessor())
+        .compilesWithoutError()
+        .and()
+        .generatesSources(factoryFile);
+  }
+
   @Test
   public void singleProducesMethodNoArgsFutureWithProducerName() {
     JavaFileObject moduleFile =
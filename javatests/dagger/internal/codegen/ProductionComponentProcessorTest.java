@@ -716,4 +716,188 @@ public class ProductionComponentProcessorTest {
                     "}")
                 .build());
   }
+
+  @Test
+  public void producerDependencyGraph() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.producers.ProducerModule;",
+            "import dagger.producers.Produces;",
+            "",
+            "@ProducerModule",
+            "final class TestModule {",
+            "  @Produces static int count() {",
+            "    return 1;",
+            "  }",
+            "",
+            "  @Produces static String string(int count) {",
+            "    return String.valueOf(count);",
+            "  }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import com.google.common.util.concurrent.ListenableFuture;",
+            "import dagger.producers.ProductionComponent;",
+            "",
+            "@ProductionComponent(modules = {ExecutorModule.class, TestModule.class})",
+            "interface TestComponent {",
+            "  ListenableFuture<String> string();",
+            "}");
+    JavaFileObject executorModule =
+        JavaFileObjects.forSourceLines(
+            "test.ExecutorModule",
+            "package test;",
+            "",
+            "import com.google.common.util.concurrent.MoreExecutors;",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.producers.Production;",
+            "import java.util.concurrent.Executor;",
+            "",
+            "@Module",
+            "final class ExecutorModule {",
+            "  @Provides @Production static Executor executor() {",
+            "    return MoreExecutors.directExecutor();",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode
+                    .javacopts()
+                    .append("-Adagger.experimentalProducerDependencyGraph=enabled"))
+            .compile(module, component, executorModule);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import com.google.common.collect.ImmutableSetMultimap;",
+                "import dagger.producers.internal.CancellationListener;",
+                "import dagger.producers.internal.ProducerDependencyGraph;",
+                "import dagger.producers.monitoring.ProducerToken;",
+                IMPORT_GENERATED_ANNOTATION,
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent",
+                "    implements TestComponent, CancellationListener, ProducerDependencyGraph {",
+                "  private static final ImmutableSetMultimap<ProducerToken, ProducerToken>",
+                "      PRODUCER_DEPENDENCIES =",
+                "          ImmutableSetMultimap.<ProducerToken, ProducerToken>builder()",
+                "              .put(",
+                "                  ProducerToken.create(TestModule_StringFactory.class),",
+                "                  ProducerToken.create(TestModule_CountFactory.class))",
+                "              .build();",
+                "",
+                "  @Override",
+                "  public ImmutableSetMultimap<ProducerToken, ProducerToken>",
+                "      producerDependencies() {",
+                "    return PRODUCER_DEPENDENCIES;",
+                "  }",
+                "}"));
+  }
+
+  @Test
+  public void producerDependencyGraph_followsBindsAndMultibindings() {
+    JavaFileObject module =
+        JavaFileObjects.forSourceLines(
+            "test.TestModule",
+            "package test;",
+            "",
+            "import dagger.Binds;",
+            "import dagger.multibindings.IntoSet;",
+            "import dagger.producers.ProducerModule;",
+            "import dagger.producers.Produces;",
+            "import java.util.Set;",
+            "",
+            "@ProducerModule",
+            "abstract class TestModule {",
+            "  @Produces static Integer count() {",
+            "    return 1;",
+            "  }",
+            "",
+            "  @Binds abstract Number number(Integer count);",
+            "",
+            "  @Produces @IntoSet static String countString(Number number) {",
+            "    return number.toString();",
+            "  }",
+            "",
+            "  @Produces static String joined(Set<String> strings) {",
+            "    return String.join(\",\", strings);",
+            "  }",
+            "}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import com.google.common.util.concurrent.ListenableFuture;",
+            "import dagger.producers.ProductionComponent;",
+            "",
+            "@ProductionComponent(modules = {ExecutorModule.class, TestModule.class})",
+            "interface TestComponent {",
+            "  ListenableFuture<String> joined();",
+            "}");
+    JavaFileObject executorModule =
+        JavaFileObjects.forSourceLines(
+            "test.ExecutorModule",
+            "package test;",
+            "",
+            "import com.google.common.util.concurrent.MoreExecutors;",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.producers.Production;",
+            "import java.util.concurrent.Executor;",
+            "",
+            "@Module",
+            "final class ExecutorModule {",
+            "  @Provides @Production static Executor executor() {",
+            "    return MoreExecutors.directExecutor();",
+            "  }",
+            "}");
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode
+                    .javacopts()
+                    .append("-Adagger.experimentalProducerDependencyGraph=enabled"))
+            .compile(module, component, executorModule);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(
+            JavaFileObjects.forSourceLines(
+                "test.DaggerTestComponent",
+                "package test;",
+                "",
+                "import com.google.common.collect.ImmutableSetMultimap;",
+                "import dagger.producers.internal.CancellationListener;",
+                "import dagger.producers.internal.ProducerDependencyGraph;",
+                "import dagger.producers.monitoring.ProducerToken;",
+                IMPORT_GENERATED_ANNOTATION,
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent",
+                "    implements TestComponent, CancellationListener, ProducerDependencyGraph {",
+                "  private static final ImmutableSetMultimap<ProducerToken, ProducerToken>",
+                "      PRODUCER_DEPENDENCIES =",
+                "          ImmutableSetMultimap.<ProducerToken, ProducerToken>builder()",
+                "              .put(",
+                "                  ProducerToken.create(TestModule_CountStringFactory.class),",
+                "                  ProducerToken.create(TestModule_CountFactory.class))",
+                "              .put(",
+                "                  ProducerToken.create(TestModule_JoinedFactory.class),",
+                "                  ProducerToken.create(TestModule_CountStringFactory.class))",
+                "              .build();",
+                "}"));
+  }
 }
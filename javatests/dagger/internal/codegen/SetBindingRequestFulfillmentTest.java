@@ -17,6 +17,7 @@
 package dagger.internal.codegen;
 
 import static com.google.testing.compile.CompilationSubject.assertThat;
+import static dagger.internal.codegen.CompilerMode.DEFAULT_MODE;
 import static dagger.internal.codegen.Compilers.CLASS_PATH_WITHOUT_GUAVA_OPTION;
 import static dagger.internal.codegen.Compilers.daggerCompiler;
 import static dagger.internal.codegen.GeneratedLines.GENERATED_ANNOTATION;
@@ -315,6 +316,157 @@ public class SetBindingRequestFulfillmentTest {
         .hasSourceEquivalentTo(generatedComponent);
   }
 
+  @Test
+  public void memoizeScopedSets() {
+    JavaFileObject setModuleFile =
+        JavaFileObjects.forSourceLines(
+            "test.SetModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.Reusable;",
+            "import dagger.multibindings.IntoSet;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Module",
+            "final class SetModule {",
+            "  @Provides @IntoSet @Singleton static String singleton() { return \"\"; }",
+            "  @Provides @IntoSet @Reusable static String reusable() { return \"\"; }",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.Set;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = SetModule.class)",
+            "interface TestComponent {",
+            "  Set<String> strings();",
+            "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerTestComponent")
+            .addLines(
+                "package test;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {",
+                "  private Provider<Set<String>> setOfStringProvider;",
+                "")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize(final Builder builder) {",
+                "    this.singletonProvider =",
+                "        DoubleCheck.provider(SetModule_SingletonFactory.create());",
+                "    this.reusableProvider =",
+                "        SingleCheck.provider(SetModule_ReusableFactory.create());",
+                "    this.setOfStringProvider =",
+                "        SingleCheck.provider(",
+                "            SetFactory.<String>builder(2, 0)",
+                "                .addProvider(singletonProvider)",
+                "                .addProvider(reusableProvider)",
+                "                .build());",
+                "  }",
+                "")
+            .addLines(
+                "  @Override",
+                "  public Set<String> strings() {",
+                "    return setOfStringProvider.get();",
+                "  }",
+                "}")
+            .build();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode
+                    .javacopts()
+                    .append(CLASS_PATH_WITHOUT_GUAVA_OPTION)
+                    .append("-Adagger.experimentalMemoizeScopedSets=enabled"))
+            .compile(setModuleFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
+  @Test
+  public void memoizeScopedSets_unscopedElement() {
+    JavaFileObject setModuleFile =
+        JavaFileObjects.forSourceLines(
+            "test.SetModule",
+            "package test;",
+            "",
+            "import dagger.Module;",
+            "import dagger.Provides;",
+            "import dagger.multibindings.IntoSet;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Module",
+            "final class SetModule {",
+            "  @Provides @IntoSet @Singleton static String singleton() { return \"\"; }",
+            "  @Provides @IntoSet static String unscoped() { return \"\"; }",
+            "}");
+    JavaFileObject componentFile =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "import java.util.Set;",
+            "import javax.inject.Singleton;",
+            "",
+            "@Singleton",
+            "@Component(modules = SetModule.class)",
+            "interface TestComponent {",
+            "  Set<String> strings();",
+            "}");
+    JavaFileObject generatedComponent =
+        compilerMode
+            .javaFileBuilder("test.DaggerTestComponent")
+            .addLines(
+                "package test;",
+                "",
+                "import dagger.internal.SetBuilder;",
+                "",
+                GENERATED_ANNOTATION,
+                "public final class DaggerTestComponent implements TestComponent {")
+            .addLinesIn(
+                DEFAULT_MODE,
+                "  @SuppressWarnings(\"unchecked\")",
+                "  private void initialize(final Builder builder) {",
+                "    this.singletonProvider =",
+                "        DoubleCheck.provider(SetModule_SingletonFactory.create());",
+                "  }",
+                "",
+                "  @Override",
+                "  public Set<String> strings() {",
+                "    return SetBuilder.<String>newSetBuilder(2)",
+                "        .add(singletonProvider.get())",
+                "        .add(SetModule_UnscopedFactory.proxyUnscoped())",
+                "        .build();",
+                "  }")
+            .addLines("}")
+            .build();
+    Compilation compilation =
+        daggerCompiler()
+            .withOptions(
+                compilerMode
+                    .javacopts()
+                    .append(CLASS_PATH_WITHOUT_GUAVA_OPTION)
+                    .append("-Adagger.experimentalMemoizeScopedSets=enabled"))
+            .compile(setModuleFile, componentFile);
+    assertThat(compilation).succeeded();
+    assertThat(compilation)
+        .generatedSourceFile("test.DaggerTestComponent")
+        .containsElementsIn(generatedComponent);
+  }
+
   private Compiler daggerCompilerWithoutGuava() {
     return daggerCompiler()
         .withOptions(compilerMode.javacopts().append(CLASS_PATH_WITHOUT_GUAVA_OPTION));
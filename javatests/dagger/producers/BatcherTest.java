@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.util.concurrent.AsyncFunction;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class BatcherTest {
+  private ScheduledExecutorService scheduler;
+  private RecordingBatchFunction batchFunction;
+
+  @Before
+  public void setUp() {
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+    batchFunction = new RecordingBatchFunction();
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void fullBatchIsSentImmediately() throws Exception {
+    Batcher<Integer, String> batcher =
+        Batcher.create(batchFunction, 3, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<String> one = batcher.get(1);
+    ListenableFuture<String> two = batcher.get(2);
+    assertThat(batchFunction.batches).isEmpty();
+
+    ListenableFuture<String> three = batcher.get(3);
+    assertThat(batchFunction.batches).containsExactly(ImmutableSet.of(1, 2, 3));
+    batchFunction.results.get(0).set(ImmutableMap.of(1, "one", 2, "two", 3, "three"));
+    assertThat(one.get()).isEqualTo("one");
+    assertThat(two.get()).isEqualTo("two");
+    assertThat(three.get()).isEqualTo("three");
+  }
+
+  @Test
+  public void duplicateKeysAreLookedUpOnce() throws Exception {
+    Batcher<Integer, String> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<String> first = batcher.get(1);
+    ListenableFuture<String> second = batcher.get(1);
+    assertThat(batchFunction.batches).isEmpty();
+
+    batcher.get(2);
+    assertThat(batchFunction.batches).containsExactly(ImmutableSet.of(1, 2));
+    batchFunction.results.get(0).set(ImmutableMap.of(1, "one", 2, "two"));
+    assertThat(first.get()).isEqualTo("one");
+    assertThat(second.get()).isEqualTo("one");
+  }
+
+  @Test
+  public void cancellingOneCallersFuture_doesNotCancelOtherCallersForTheSameKey()
+      throws Exception {
+    Batcher<Integer, String> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<String> cancelled = batcher.get(1);
+    ListenableFuture<String> other = batcher.get(1);
+    assertThat(cancelled.cancel(true)).isTrue();
+    assertThat(other.isCancelled()).isFalse();
+
+    batcher.get(2);
+    batchFunction.results.get(0).set(ImmutableMap.of(1, "one", 2, "two"));
+    assertThat(other.get()).isEqualTo("one");
+  }
+
+  @Test
+  public void partialBatchIsSentAfterWindow() throws Exception {
+    Batcher<Integer, String> batcher =
+        Batcher.create(batchFunction, 100, 10, TimeUnit.MILLISECONDS, scheduler);
+    ListenableFuture<String> one = batcher.get(1);
+    ListenableFuture<String> two = batcher.get(2);
+
+    batchFunction.awaitBatches(1);
+    assertThat(batchFunction.batches).containsExactly(ImmutableSet.of(1, 2));
+    batchFunction.results.get(0).set(ImmutableMap.of(1, "one", 2, "two"));
+    assertThat(one.get()).isEqualTo("one");
+    assertThat(two.get()).isEqualTo("two");
+
+    ListenableFuture<String> three = batcher.get(3);
+    batchFunction.awaitBatches(2);
+    assertThat(batchFunction.batches.get(1)).containsExactly(3);
+    batchFunction.results.get(1).set(ImmutableMap.of(3, "three"));
+    assertThat(three.get()).isEqualTo("three");
+  }
+
+  @Test
+  public void failedBatchFailsEveryKey() throws Exception {
+    Batcher<Integer, String> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<String> one = batcher.get(1);
+    ListenableFuture<String> two = batcher.get(2);
+    Throwable cause = new RuntimeException("monkey");
+    batchFunction.results.get(0).setException(cause);
+    assertFailedWith(one, cause);
+    assertFailedWith(two, cause);
+  }
+
+  @Test
+  public void missingValueFailsOnlyThatKey() throws Exception {
+    Batcher<Integer, String> batcher =
+        Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, scheduler);
+    ListenableFuture<String> one = batcher.get(1);
+    ListenableFuture<String> two = batcher.get(2);
+    batchFunction.results.get(0).set(ImmutableMap.of(1, "one"));
+    assertThat(one.get()).isEqualTo("one");
+    try {
+      two.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected.getCause()).isInstanceOf(IllegalStateException.class);
+    }
+  }
+
+  @Test
+  public void throwingBatchFunctionFailsEveryKey() throws Exception {
+    final RuntimeException cause = new RuntimeException("monkey");
+    Batcher<Integer, String> batcher =
+        Batcher.create(
+            new AsyncFunction<Set<Integer>, Map<Integer, String>>() {
+              @Override
+              public ListenableFuture<Map<Integer, String>> apply(Set<Integer> keys) {
+                throw cause;
+              }
+            },
+            1,
+            1,
+            TimeUnit.HOURS,
+            scheduler);
+    assertFailedWith(batcher.get(1), cause);
+  }
+
+  @Test
+  public void rejectedWindow_doesNotLeaveABatchBehind() throws Exception {
+    ScheduledThreadPoolExecutor rejectsOnce =
+        new ScheduledThreadPoolExecutor(1) {
+          private boolean rejected;
+
+          @Override
+          public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            if (!rejected) {
+              rejected = true;
+              throw new RejectedExecutionException();
+            }
+            return super.schedule(command, delay, unit);
+          }
+        };
+    try {
+      Batcher<Integer, String> batcher =
+          Batcher.create(batchFunction, 2, 1, TimeUnit.HOURS, rejectsOnce);
+      try {
+        batcher.get(1);
+        fail();
+      } catch (RejectedExecutionException expected) {
+      }
+
+      ListenableFuture<String> one = batcher.get(1);
+      ListenableFuture<String> two = batcher.get(2);
+      assertThat(batchFunction.batches).containsExactly(ImmutableSet.of(1, 2));
+      batchFunction.results.get(0).set(ImmutableMap.of(1, "one", 2, "two"));
+      assertThat(one.get()).isEqualTo("one");
+      assertThat(two.get()).isEqualTo("two");
+    } finally {
+      rejectsOnce.shutdownNow();
+    }
+  }
+
+  @Test
+  public void invalidArguments() {
+    try {
+      Batcher.create(batchFunction, 0, 1, TimeUnit.HOURS, scheduler);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      Batcher.create(batchFunction, 1, 0, TimeUnit.HOURS, scheduler);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  private static void assertFailedWith(ListenableFuture<?> future, Throwable cause)
+      throws InterruptedException {
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected.getCause()).isSameAs(cause);
+    }
+  }
+
+  private static final class RecordingBatchFunction
+      implements AsyncFunction<Set<Integer>, Map<Integer, String>> {
+    final List<Set<Integer>> batches = new ArrayList<>();
+    final List<SettableFuture<Map<Integer, String>>> results = new ArrayList<>();
+
+    @Override
+    public synchronized ListenableFuture<Map<Integer, String>> apply(Set<Integer> keys) {
+      SettableFuture<Map<Integer, String>> result = SettableFuture.create();
+      batches.add(keys);
+      results.add(result);
+      notifyAll();
+      return result;
+    }
+
+    synchronized void awaitBatches(int count) throws InterruptedException {
+      while (batches.size() < count) {
+        wait();
+      }
+    }
+  }
+}
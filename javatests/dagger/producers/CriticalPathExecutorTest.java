@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import dagger.producers.internal.ProducerDependencyGraph;
+import dagger.producers.monitoring.ProducerToken;
+import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class CriticalPathExecutorTest {
+  private static final ProducerToken LEAF = ProducerToken.create("leaf");
+  private static final ProducerToken MIDDLE = ProducerToken.create("middle");
+  private static final ProducerToken ENTRY_POINT = ProducerToken.create("entryPoint");
+  private static final ProducerToken SIDE = ProducerToken.create("side");
+
+  private final QueueingExecutor delegate = new QueueingExecutor();
+  private final CriticalPathExecutor executor = CriticalPathExecutor.create(delegate);
+  private final List<String> ran = new ArrayList<>();
+
+  @Test
+  public void runsLongestRemainingPathFirst() {
+    registerGraph();
+    executor.execute(task("side"), SIDE);
+    executor.execute(task("entryPoint"), ENTRY_POINT);
+    executor.execute(task("middle"), MIDDLE);
+    executor.execute(task("leaf"), LEAF);
+    delegate.runAll();
+    // side and middle are both one step from the entry point, so they run in submission order.
+    assertThat(ran).containsExactly("leaf", "side", "middle", "entryPoint").inOrder();
+  }
+
+  @Test
+  public void unknownTokensRunInSubmissionOrder() {
+    executor.execute(task("a"), ProducerToken.create("a"));
+    executor.execute(task("b"));
+    executor.execute(task("c"), ProducerToken.create("c"));
+    delegate.runAll();
+    assertThat(ran).containsExactly("a", "b", "c").inOrder();
+  }
+
+  @Test
+  public void componentsWithoutGraphAreIgnored() {
+    ProductionComponentMonitor monitor = executor.monitorFactory().create(new Object());
+    assertThat(monitor).isSameAs(ProductionComponentMonitor.noOp());
+    executor.execute(task("entryPoint"), ENTRY_POINT);
+    executor.execute(task("leaf"), LEAF);
+    delegate.runAll();
+    assertThat(ran).containsExactly("entryPoint", "leaf").inOrder();
+  }
+
+  @Test
+  public void rejectedTask_isNotRun() {
+    CriticalPathExecutor rejecting =
+        CriticalPathExecutor.create(
+            new Executor() {
+              @Override
+              public void execute(Runnable runner) {
+                throw new RejectedExecutionException();
+              }
+            });
+    try {
+      rejecting.execute(task("rejected"), LEAF);
+      fail();
+    } catch (RejectedExecutionException expected) {
+    }
+    assertThat(ran).isEmpty();
+  }
+
+  @Test
+  public void rejectedRunner_taskAlreadyTakenByAnotherRunner_isNotReportedAsRejected() {
+    // Simulates another runner taking the task before the delegate rejects this task's runner.
+    CriticalPathExecutor runsThenRejects =
+        CriticalPathExecutor.create(
+            new Executor() {
+              @Override
+              public void execute(Runnable runner) {
+                runner.run();
+                throw new RejectedExecutionException();
+              }
+            });
+    runsThenRejects.execute(task("accepted"), LEAF);
+    assertThat(ran).containsExactly("accepted");
+  }
+
+  /**
+   * Registers a graph where the entry point depends on the middle producer and on the side
+   * producer, and both of those depend on the leaf.
+   */
+  private void registerGraph() {
+    final ImmutableSetMultimap<ProducerToken, ProducerToken> dependencies =
+        ImmutableSetMultimap.<ProducerToken, ProducerToken>builder()
+            .put(ENTRY_POINT, MIDDLE)
+            .put(ENTRY_POINT, SIDE)
+            .put(MIDDLE, LEAF)
+            .build();
+    ProducerDependencyGraph component =
+        new ProducerDependencyGraph() {
+          @Override
+          public ImmutableSetMultimap<ProducerToken, ProducerToken> producerDependencies() {
+            return dependencies;
+          }
+        };
+    assertThat(executor.monitorFactory().create(component))
+        .isSameAs(ProductionComponentMonitor.noOp());
+  }
+
+  private Runnable task(final String name) {
+    return new Runnable() {
+      @Override
+      public void run() {
+        ran.add(name);
+      }
+    };
+  }
+
+  private static final class QueueingExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    @Override
+    public void execute(Runnable task) {
+      tasks.add(task);
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = tasks.poll()) != null) {
+        task.run();
+      }
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+import com.google.common.testing.FakeTicker;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DeadlineTest {
+  private final FakeTicker ticker = new FakeTicker();
+  private ScheduledExecutorService scheduler;
+
+  @Before
+  public void setUp() {
+    scheduler = Executors.newSingleThreadScheduledExecutor();
+  }
+
+  @After
+  public void tearDown() {
+    scheduler.shutdownNow();
+  }
+
+  @Test
+  public void remaining() {
+    Deadline deadline = Deadline.after(2, SECONDS, ticker);
+    assertThat(deadline.remaining(MILLISECONDS)).isEqualTo(2000);
+    assertThat(deadline.isExpired()).isFalse();
+
+    ticker.advance(1500, MILLISECONDS);
+    assertThat(deadline.remaining(MILLISECONDS)).isEqualTo(500);
+    assertThat(deadline.isExpired()).isFalse();
+
+    ticker.advance(500, MILLISECONDS);
+    assertThat(deadline.remaining(NANOSECONDS)).isEqualTo(0);
+    assertThat(deadline.isExpired()).isTrue();
+
+    ticker.advance(1, SECONDS);
+    assertThat(deadline.remaining(NANOSECONDS)).isEqualTo(0);
+    assertThat(deadline.isExpired()).isTrue();
+  }
+
+  @Test
+  public void cancelAtDeadline_expired_cancelsImmediately() {
+    Deadline deadline = Deadline.after(1, SECONDS, ticker);
+    ticker.advance(1, SECONDS);
+    SettableFuture<String> future = SettableFuture.create();
+    assertThat(deadline.cancelAtDeadline(future, scheduler)).isSameAs(future);
+    assertThat(future.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void cancelAtDeadline_cancelsWhenDeadlineExpires() throws Exception {
+    Deadline deadline = Deadline.after(10, MILLISECONDS);
+    SettableFuture<String> future = SettableFuture.create();
+    deadline.cancelAtDeadline(future, scheduler);
+    try {
+      future.get(10, SECONDS);
+    } catch (CancellationException expected) {
+    }
+    assertThat(future.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void cancelAtDeadline_doneFutureIsNotCancelled() throws Exception {
+    Deadline deadline = Deadline.after(10, MILLISECONDS);
+    SettableFuture<String> future = SettableFuture.create();
+    deadline.cancelAtDeadline(future, scheduler);
+    future.set("done");
+    // Wait until after the deadline.
+    scheduler
+        .schedule(
+            new Runnable() {
+              @Override
+              public void run() {}
+            },
+            50,
+            MILLISECONDS)
+        .get();
+    assertThat(future.isCancelled()).isFalse();
+    assertThat(future.get()).isEqualTo("done");
+  }
+}
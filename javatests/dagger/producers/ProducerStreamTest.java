@@ -0,0 +1,151 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.MoreExecutors.directExecutor;
+import static org.junit.Assert.fail;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class ProducerStreamTest {
+  @Test
+  public void listenerReceivesEarlierAndLaterElements() {
+    ProducerStream<String> stream = ProducerStream.create();
+    stream.emit("a");
+    RecordingListener listener = new RecordingListener();
+    stream.addListener(listener, directExecutor());
+    assertThat(listener.events).containsExactly("a");
+
+    stream.emit("b");
+    stream.complete();
+    assertThat(listener.events).containsExactly("a", "b", "complete").inOrder();
+  }
+
+  @Test
+  public void emitAfterComplete_throws() {
+    ProducerStream<String> stream = ProducerStream.create();
+    stream.complete();
+    try {
+      stream.emit("a");
+      fail();
+    } catch (IllegalStateException expected) {
+    }
+  }
+
+  @Test
+  public void failure() throws Exception {
+    ProducerStream<String> stream = ProducerStream.create();
+    RecordingListener listener = new RecordingListener();
+    stream.addListener(listener, directExecutor());
+    stream.emit("a");
+    stream.fail(new IllegalArgumentException("monkey"));
+    stream.complete();
+    assertThat(listener.events).containsExactly("a", "failed: monkey").inOrder();
+    try {
+      stream.toList().get();
+      fail();
+    } catch (ExecutionException expected) {
+      assertThat(expected.getCause()).hasMessageThat().isEqualTo("monkey");
+    }
+  }
+
+  @Test
+  public void fromFutures_emitsInCompletionOrder() throws Exception {
+    SettableFuture<String> slow = SettableFuture.create();
+    SettableFuture<String> fast = SettableFuture.create();
+    ProducerStream<String> stream = ProducerStream.fromFutures(ImmutableList.of(slow, fast));
+    RecordingListener listener = new RecordingListener();
+    stream.addListener(listener, directExecutor());
+    ListenableFuture<List<String>> all = stream.toList();
+
+    fast.set("fast");
+    assertThat(listener.events).containsExactly("fast");
+    assertThat(all.isDone()).isFalse();
+
+    slow.set("slow");
+    assertThat(listener.events).containsExactly("fast", "slow", "complete").inOrder();
+    assertThat(all.get()).containsExactly("fast", "slow").inOrder();
+  }
+
+  @Test
+  public void fromFutures_empty() throws Exception {
+    ProducerStream<String> stream =
+        ProducerStream.fromFutures(ImmutableList.<ListenableFuture<String>>of());
+    assertThat(stream.toList().get()).isEmpty();
+  }
+
+  @Test
+  public void merge_interleavesStreams() throws Exception {
+    ProducerStream<String> first = ProducerStream.create();
+    ProducerStream<String> second = ProducerStream.create();
+    ProducerStream<String> merged = ProducerStream.merge(ImmutableList.of(first, second));
+    RecordingListener listener = new RecordingListener();
+    merged.addListener(listener, directExecutor());
+
+    second.emit("b1");
+    first.emit("a1");
+    first.complete();
+    assertThat(listener.events).containsExactly("b1", "a1").inOrder();
+
+    second.emit("b2");
+    second.complete();
+    assertThat(listener.events).containsExactly("b1", "a1", "b2", "complete").inOrder();
+  }
+
+  @Test
+  public void merge_failsWithFirstFailure() {
+    ProducerStream<String> first = ProducerStream.create();
+    ProducerStream<String> second = ProducerStream.create();
+    ProducerStream<String> merged = ProducerStream.merge(ImmutableList.of(first, second));
+    RecordingListener listener = new RecordingListener();
+    merged.addListener(listener, directExecutor());
+
+    first.fail(new IllegalStateException("monkey"));
+    second.emit("b1");
+    second.complete();
+    assertThat(listener.events).containsExactly("failed: monkey");
+  }
+
+  private static final class RecordingListener implements ProducerStream.Listener<String> {
+    final List<String> events = new ArrayList<>();
+
+    @Override
+    public void onElement(String element) {
+      events.add(element);
+    }
+
+    @Override
+    public void onComplete() {
+      events.add("complete");
+    }
+
+    @Override
+    public void onFailure(Throwable cause) {
+      events.add("failed: " + cause.getMessage());
+    }
+  }
+}
@@ -19,6 +19,7 @@ package dagger.producers.internal;
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
@@ -28,11 +29,21 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.SettableFuture;
 import dagger.producers.Producer;
+import dagger.producers.ProducerTokenExecutor;
 import dagger.producers.monitoring.ProducerMonitor;
 import dagger.producers.monitoring.ProducerToken;
 import dagger.producers.monitoring.ProductionComponentMonitor;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import javax.inject.Provider;
 import org.junit.Before;
 import org.junit.Test;
@@ -116,6 +127,289 @@ public class AbstractProducesMethodProducerTest {
     new DelegateProducer<>(null, Futures.immediateFuture(42));
   }
 
+  @Test
+  public void executesInline_skipsExecutor() throws Exception {
+    SettableFuture<Integer> dependency = SettableFuture.create();
+    QueueingExecutor executor = new QueueingExecutor();
+    final Thread[] producingThread = new Thread[1];
+    Producer<Integer> producer =
+        new InlineProducer(componentMonitorProvider, executor, dependency) {
+          @Override
+          protected ListenableFuture<Integer> callProducesMethod(Integer asyncDependencies) {
+            producingThread[0] = Thread.currentThread();
+            return super.callProducesMethod(asyncDependencies);
+          }
+        };
+
+    ListenableFuture<Integer> future = producer.get();
+    assertThat(future.isDone()).isFalse();
+    dependency.set(41);
+    assertThat(future.get()).isEqualTo(42);
+    assertThat(producingThread[0]).isSameAs(Thread.currentThread());
+    assertThat(executor.submitted).isEqualTo(0);
+    verify(monitor).requested();
+    verify(monitor).ready();
+    verify(monitor).methodStarting();
+    verify(monitor).methodFinished();
+  }
+
+  @Test
+  public void executesInline_dependenciesDone_completesSynchronously() throws Exception {
+    QueueingExecutor executor = new QueueingExecutor();
+    Producer<Integer> producer =
+        new InlineProducer(componentMonitorProvider, executor, Futures.immediateFuture(41));
+
+    ListenableFuture<Integer> future = producer.get();
+    assertThat(future.isDone()).isTrue();
+    assertThat(future.get()).isEqualTo(42);
+    assertThat(executor.submitted).isEqualTo(0);
+    verify(monitor).requested();
+    verify(monitor).ready();
+    verify(monitor).methodStarting();
+    verify(monitor).methodFinished();
+    verify(monitor).succeeded(42);
+  }
+
+  @Test
+  public void executesInline_dependencyFailed() throws Exception {
+    Throwable t = new RuntimeException("monkey");
+    Producer<Integer> producer =
+        new InlineProducer(
+            componentMonitorProvider,
+            new QueueingExecutor(),
+            Futures.<Integer>immediateFailedFuture(t));
+
+    ListenableFuture<Integer> future = producer.get();
+    assertThat(future.isDone()).isTrue();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).isSameAs(t);
+    }
+    // The same callbacks as when the failed dependency goes through the executor.
+    verify(monitor).requested();
+    verify(monitor).ready();
+    verify(monitor).addCallbackTo(anyListenableFuture());
+    verify(monitor, never()).methodStarting();
+    verify(monitor).failed(t);
+    verifyNoMoreInteractions(monitor);
+  }
+
+  @Test
+  public void executesInline_dependencyCancelled() throws Exception {
+    Producer<Integer> producer =
+        new InlineProducer(
+            componentMonitorProvider,
+            new QueueingExecutor(),
+            Futures.<Integer>immediateCancelledFuture());
+
+    ListenableFuture<Integer> future = producer.get();
+    assertThat(future.isCancelled()).isTrue();
+    verify(monitor).requested();
+    verify(monitor).ready();
+    verify(monitor).addCallbackTo(anyListenableFuture());
+    verify(monitor, never()).methodStarting();
+  }
+
+  @Test
+  public void executesInline_boundedDepth() throws Exception {
+    SettableFuture<Integer> root = SettableFuture.create();
+    QueueingExecutor executor = new QueueingExecutor();
+    ListenableFuture<Integer> future = root;
+    int chainLength = 10000;
+    for (int i = 0; i < chainLength; i++) {
+      future = new InlineProducer(componentMonitorProvider, executor, future).get();
+    }
+
+    root.set(0);
+    executor.runAll();
+    assertThat(future.get()).isEqualTo(chainLength);
+    assertThat(executor.submitted).isGreaterThan(0);
+    assertThat(executor.submitted).isLessThan(chainLength);
+  }
+
+  @Test
+  public void producerTokenExecutor_receivesToken() throws Exception {
+    final ProducerToken token = ProducerToken.create("token");
+    final List<ProducerToken> submittedTokens = new ArrayList<>();
+    final Executor executor =
+        new ProducerTokenExecutor() {
+          @Override
+          public void execute(Runnable task, ProducerToken token) {
+            submittedTokens.add(token);
+            task.run();
+          }
+
+          @Override
+          public void execute(Runnable task) {
+            throw new AssertionError();
+          }
+        };
+    Producer<Integer> producer =
+        new AbstractProducesMethodProducer<Void, Integer>(
+            componentMonitorProvider,
+            token,
+            new Provider<Executor>() {
+              @Override
+              public Executor get() {
+                return executor;
+              }
+            }) {
+          @Override
+          protected ListenableFuture<Void> collectDependencies() {
+            return Futures.immediateFuture(null);
+          }
+
+          @Override
+          protected ListenableFuture<Integer> callProducesMethod(Void asyncDependencies) {
+            return Futures.immediateFuture(42);
+          }
+        };
+
+    assertThat(producer.get().get()).isEqualTo(42);
+    assertThat(submittedTokens).containsExactly(token);
+  }
+
+  @Test
+  public void cancel_interruptsBlockingProducesMethod() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      BlockingProducer producer = new BlockingProducer(componentMonitorProvider, executor);
+      ListenableFuture<Boolean> future = producer.get();
+      producer.started.await();
+
+      producer.cancel(true);
+      assertThat(future.isCancelled()).isTrue();
+      assertThat(producer.interrupted.get()).isTrue();
+      // The interrupt is cleared before the executor's thread is reused.
+      assertThat(
+              executor
+                  .submit(
+                      new Callable<Boolean>() {
+                        @Override
+                        public Boolean call() {
+                          return Thread.currentThread().isInterrupted();
+                        }
+                      })
+                  .get())
+          .isFalse();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void cancel_withoutInterruption_doesNotInterrupt() throws Exception {
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      BlockingProducer producer = new BlockingProducer(componentMonitorProvider, executor);
+      ListenableFuture<Boolean> future = producer.get();
+      producer.started.await();
+
+      producer.cancel(false);
+      assertThat(future.isCancelled()).isTrue();
+      producer.release.countDown();
+      executor.shutdown();
+      assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+      assertThat(producer.interrupted.get()).isFalse();
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /** An executor that queues tasks until {@link #runAll()} is called. */
+  private static final class QueueingExecutor implements Executor {
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+    int submitted;
+
+    @Override
+    public void execute(Runnable runnable) {
+      submitted++;
+      tasks.add(runnable);
+    }
+
+    void runAll() {
+      for (Runnable task = tasks.poll(); task != null; task = tasks.poll()) {
+        task.run();
+      }
+    }
+  }
+
+  /** An inline producer that adds one to its dependency. */
+  private static class InlineProducer extends AbstractProducesMethodProducer<Integer, Integer> {
+    private final ListenableFuture<Integer> dependency;
+
+    InlineProducer(
+        Provider<ProductionComponentMonitor> componentMonitorProvider,
+        final Executor executor,
+        ListenableFuture<Integer> dependency) {
+      super(
+          componentMonitorProvider,
+          null, // token
+          new Provider<Executor>() {
+            @Override
+            public Executor get() {
+              return executor;
+            }
+          });
+      this.dependency = dependency;
+    }
+
+    @Override
+    protected boolean executesInline() {
+      return true;
+    }
+
+    @Override
+    protected ListenableFuture<Integer> collectDependencies() {
+      return dependency;
+    }
+
+    @Override
+    protected ListenableFuture<Integer> callProducesMethod(Integer asyncDependencies) {
+      return Futures.immediateFuture(asyncDependencies + 1);
+    }
+  }
+
+  /** A producer whose method blocks until it is released or interrupted. */
+  private static final class BlockingProducer
+      extends AbstractProducesMethodProducer<Void, Boolean> {
+    final CountDownLatch started = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final SettableFuture<Boolean> interrupted = SettableFuture.create();
+
+    BlockingProducer(
+        Provider<ProductionComponentMonitor> componentMonitorProvider, final Executor executor) {
+      super(
+          componentMonitorProvider,
+          null, // token
+          new Provider<Executor>() {
+            @Override
+            public Executor get() {
+              return executor;
+            }
+          });
+    }
+
+    @Override
+    protected ListenableFuture<Void> collectDependencies() {
+      return Futures.immediateFuture(null);
+    }
+
+    @Override
+    protected ListenableFuture<Boolean> callProducesMethod(Void asyncDependencies) {
+      started.countDown();
+      try {
+        release.await();
+        interrupted.set(false);
+      } catch (InterruptedException e) {
+        interrupted.set(true);
+      }
+      return Futures.immediateFuture(true);
+    }
+  }
+
   static final class DelegateProducer<T> extends AbstractProducesMethodProducer<Void, T> {
     private final ListenableFuture<T> delegate;
 
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.internal;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.SettableFuture;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class DependencyMethodProducerTest {
+  private final SettableFutureProducer producer = new SettableFutureProducer();
+
+  @Test
+  public void cancel_cancelsIncompleteFutures() {
+    ListenableFuture<String> first = producer.get();
+    ListenableFuture<String> second = producer.get();
+    producer.created.peek().set("done");
+
+    producer.cancel(true);
+    assertThat(first.isCancelled()).isFalse();
+    assertThat(second.isCancelled()).isTrue();
+  }
+
+  @Test
+  public void get_afterCancel_returnsCancelledFuture() {
+    producer.cancel(false);
+    assertThat(producer.get().isCancelled()).isTrue();
+    assertThat(producer.created).isEmpty();
+  }
+
+  @Test
+  public void get_concurrentWithCancel_leavesNoFutureRunning() throws Exception {
+    int threads = 32;
+    for (int run = 0; run < 20; run++) {
+      final SettableFutureProducer producer = new SettableFutureProducer();
+      final CountDownLatch start = new CountDownLatch(1);
+      final Queue<ListenableFuture<String>> returned = new ConcurrentLinkedQueue<>();
+      // One more thread than tasks that call get(), so that cancel() runs concurrently with them.
+      ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+      try {
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+          final boolean completes = i % 2 == 0;
+          tasks.add(
+              executor.submit(
+                  new Runnable() {
+                    @Override
+                    public void run() {
+                      awaitUninterruptibly(start);
+                      for (int j = 0; j < 200; j++) {
+                        ListenableFuture<String> future = producer.get();
+                        returned.add(future);
+                        // Once the producer is cancelled, get() returns an immediately cancelled
+                        // future rather than one that callDependencyMethod() created.
+                        if (completes && !future.isCancelled()) {
+                          ((SettableFuture<String>) future).set("done");
+                        }
+                      }
+                    }
+                  }));
+        }
+        tasks.add(
+            executor.submit(
+                new Runnable() {
+                  @Override
+                  public void run() {
+                    awaitUninterruptibly(start);
+                    producer.cancel(true);
+                  }
+                }));
+        start.countDown();
+        for (Future<?> task : tasks) {
+          task.get(10, TimeUnit.SECONDS);
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+
+      for (ListenableFuture<String> future : returned) {
+        assertThat(future.isDone()).isTrue();
+      }
+      assertThat(producer.get().isCancelled()).isTrue();
+    }
+  }
+
+  private static void awaitUninterruptibly(CountDownLatch latch) {
+    try {
+      latch.await();
+    } catch (InterruptedException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  /** A producer whose dependency method returns a new, incomplete future each time. */
+  private static final class SettableFutureProducer extends DependencyMethodProducer<String> {
+    final Queue<SettableFuture<String>> created = new ConcurrentLinkedQueue<>();
+
+    @Override
+    protected ListenableFuture<String> callDependencyMethod() {
+      SettableFuture<String> future = SettableFuture.create();
+      created.add(future);
+      return future;
+    }
+  }
+}
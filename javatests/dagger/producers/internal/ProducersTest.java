@@ -25,6 +25,7 @@ import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.SettableFuture;
 import dagger.producers.Produced;
 import dagger.producers.Producer;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
@@ -124,6 +125,39 @@ public class ProducersTest {
     }
   }
 
+  @Test
+  public void allAsList_done() throws Exception {
+    ListenableFuture<List<Object>> future =
+        Producers.allAsList(Futures.immediateFuture("monkey"), Futures.immediateFuture(42));
+    assertThat(future.isDone()).isTrue();
+    assertThat(future.get()).containsExactly("monkey", 42).inOrder();
+  }
+
+  @Test
+  public void allAsList_pending() throws Exception {
+    SettableFuture<String> pending = SettableFuture.create();
+    ListenableFuture<List<Object>> future =
+        Producers.allAsList(Futures.immediateFuture("monkey"), pending);
+    assertThat(future.isDone()).isFalse();
+    pending.set("gorilla");
+    assertThat(future.get()).containsExactly("monkey", "gorilla").inOrder();
+  }
+
+  @Test
+  public void allAsList_failure() throws Exception {
+    ListenableFuture<List<Object>> future =
+        Producers.allAsList(
+            Futures.immediateFuture("monkey"),
+            Futures.immediateFailedFuture(new RuntimeException("gorilla")));
+    assertThat(future.isDone()).isTrue();
+    try {
+      future.get();
+      fail();
+    } catch (ExecutionException e) {
+      assertThat(e.getCause()).hasMessage("gorilla");
+    }
+  }
+
   @Test public void producerFromProvider_doesntCache() throws Exception {
     Producer<Integer> producer = Producers.producerFromProvider(new Provider<Integer>() {
       int i = 0;
@@ -0,0 +1,97 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.google.common.collect.ImmutableSetMultimap;
+import dagger.producers.internal.ProducerDependencyGraph;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+
+@RunWith(JUnit4.class)
+public final class CriticalPathTimingRecorderFactoryTest {
+  private static final ProducerToken A = ProducerToken.create("a");
+  private static final ProducerToken B = ProducerToken.create("b");
+  private static final ProducerToken C = ProducerToken.create("c");
+  private static final ProducerToken D = ProducerToken.create("d");
+
+  /** A component in which d depends on b and c, which both depend on a. */
+  private static final ProducerDependencyGraph COMPONENT =
+      new ProducerDependencyGraph() {
+        @Override
+        public ImmutableSetMultimap<ProducerToken, ProducerToken> producerDependencies() {
+          return ImmutableSetMultimap.of(D, B, D, C, B, A, C, A);
+        }
+      };
+
+  @Test
+  public void recordsCriticalPath() {
+    CriticalPathTimingRecorderFactory factory = new CriticalPathTimingRecorderFactory();
+    ProductionComponentTimingRecorder recorder = factory.create(COMPONENT);
+    ProducerTimingRecorder d = recorder.producerTimingRecorderFor(D);
+    ProducerTimingRecorder b = recorder.producerTimingRecorderFor(B);
+    ProducerTimingRecorder c = recorder.producerTimingRecorderFor(C);
+    ProducerTimingRecorder a = recorder.producerTimingRecorderFor(A);
+
+    run(a, 0, 10);
+    run(b, 10, 5);
+    run(c, 10, 20);
+    assertThat(factory.criticalPathHistograms()).isEmpty();
+    run(d, 30, 5);
+
+    assertThat(factory.criticalPathHistograms().keySet()).containsExactly(A, C, D);
+    assertThat(factory.criticalPathHistograms().get(A).totalNanos()).isEqualTo(10);
+    assertThat(factory.criticalPathHistograms().get(C).totalNanos()).isEqualTo(20);
+    assertThat(factory.criticalPathHistograms().get(D).totalNanos()).isEqualTo(5);
+    assertThat(factory.criticalPathHistograms().get(D).count()).isEqualTo(1);
+    assertThat(factory.criticalPathHistograms().get(D).bucketCounts().get(2)).isEqualTo(1);
+  }
+
+  @Test
+  public void skippedProducersAreNotOnCriticalPath() {
+    CriticalPathTimingRecorderFactory factory = new CriticalPathTimingRecorderFactory();
+    ProductionComponentTimingRecorder recorder = factory.create(COMPONENT);
+    ProducerTimingRecorder b = recorder.producerTimingRecorderFor(B);
+    ProducerTimingRecorder a = recorder.producerTimingRecorderFor(A);
+
+    Throwable failure = new RuntimeException("monkey");
+    a.recordMethod(0, 10);
+    a.recordFailure(failure, 10);
+    b.recordSkip(failure);
+
+    assertThat(factory.criticalPathHistograms().keySet()).containsExactly(A);
+  }
+
+  @Test
+  public void eachExecutionIsRecorded() {
+    CriticalPathTimingRecorderFactory factory = new CriticalPathTimingRecorderFactory();
+    for (int i = 0; i < 3; i++) {
+      ProductionComponentTimingRecorder recorder = factory.create(COMPONENT);
+      run(recorder.producerTimingRecorderFor(A), 0, 10);
+    }
+
+    assertThat(factory.criticalPathHistograms().get(A).count()).isEqualTo(3);
+    assertThat(factory.criticalPathHistograms().get(A).totalNanos()).isEqualTo(30);
+  }
+
+  private static void run(ProducerTimingRecorder recorder, long startedNanos, long latencyNanos) {
+    recorder.recordMethod(startedNanos, latencyNanos);
+    recorder.recordSuccess(latencyNanos);
+  }
+}
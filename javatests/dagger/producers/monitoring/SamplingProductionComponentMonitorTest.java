@@ -0,0 +1,92 @@
+/*
+ * Copyright (C) 2018 The Dagger Authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dagger.producers.monitoring;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.JUnit4;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+@RunWith(JUnit4.class)
+public final class SamplingProductionComponentMonitorTest {
+  @Mock private ProductionComponentMonitor.Factory delegateFactory;
+  @Mock private ProductionComponentMonitor delegateMonitor;
+
+  @Before
+  public void setUp() {
+    MockitoAnnotations.initMocks(this);
+    when(delegateFactory.create(any(Object.class))).thenReturn(delegateMonitor);
+  }
+
+  @Test
+  public void rateOne_monitorsEveryComponent() {
+    ProductionComponentMonitor.Factory factory =
+        new SamplingProductionComponentMonitor.Factory(delegateFactory, 1);
+    Object component = new Object();
+    assertThat(factory.create(component)).isSameAs(delegateMonitor);
+    verify(delegateFactory).create(component);
+  }
+
+  @Test
+  public void rateZero_monitorsNoComponent() {
+    ProductionComponentMonitor.Factory factory =
+        new SamplingProductionComponentMonitor.Factory(delegateFactory, 0);
+    for (int i = 0; i < 100; i++) {
+      assertThat(factory.create(new Object())).isSameAs(ProductionComponentMonitor.noOp());
+    }
+    verifyZeroInteractions(delegateFactory);
+  }
+
+  @Test
+  public void rateOutOfRange() {
+    try {
+      new SamplingProductionComponentMonitor.Factory(delegateFactory, 1.5);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+    try {
+      new SamplingProductionComponentMonitor.Factory(delegateFactory, -0.5);
+      fail();
+    } catch (IllegalArgumentException expected) {
+    }
+  }
+
+  @Test
+  public void sampler_decidesPerComponent() {
+    final Object sampled = new Object();
+    ProductionComponentMonitor.Factory factory =
+        new SamplingProductionComponentMonitor.Factory(
+            delegateFactory,
+            new SamplingProductionComponentMonitor.Sampler() {
+              @Override
+              public boolean shouldMonitor(Object component) {
+                return component == sampled;
+              }
+            });
+    assertThat(factory.create(sampled)).isSameAs(delegateMonitor);
+    assertThat(factory.create(new Object())).isSameAs(ProductionComponentMonitor.noOp());
+  }
+}
@@ -462,6 +462,37 @@ public final class MonitorsTest {
     verifyNoMoreInteractions(mockProducerMonitorA, mockProducerMonitorB, mockProducerMonitorC);
   }
 
+  @Test
+  public void singleMonitor_noOpProductionComponentMonitorIsNotWrapped() {
+    when(mockProductionComponentMonitorFactory.create(any(Object.class)))
+        .thenReturn(ProductionComponentMonitor.noOp());
+    ProductionComponentMonitor.Factory factory =
+        Monitors.delegatingProductionComponentMonitorFactory(
+            ImmutableList.of(mockProductionComponentMonitorFactory));
+    assertThat(factory.create(new Object())).isSameAs(ProductionComponentMonitor.noOp());
+  }
+
+  @Test
+  public void multipleMonitors_noOpMonitorsAreDropped() {
+    when(mockProductionComponentMonitorFactoryA.create(any(Object.class)))
+        .thenReturn(ProductionComponentMonitor.noOp());
+    when(mockProductionComponentMonitorFactoryB.create(any(Object.class)))
+        .thenReturn(mockProductionComponentMonitorB);
+    when(mockProductionComponentMonitorB.producerMonitorFor(any(ProducerToken.class)))
+        .thenReturn(ProducerMonitor.noOp());
+    ProductionComponentMonitor.Factory factory =
+        Monitors.delegatingProductionComponentMonitorFactory(
+            ImmutableList.of(
+                mockProductionComponentMonitorFactoryA, mockProductionComponentMonitorFactoryB));
+    ProductionComponentMonitor monitor = factory.create(new Object());
+    assertThat(monitor.producerMonitorFor(ProducerToken.create(Object.class)))
+        .isSameAs(ProducerMonitor.noOp());
+
+    when(mockProductionComponentMonitorFactoryB.create(any(Object.class)))
+        .thenReturn(ProductionComponentMonitor.noOp());
+    assertThat(factory.create(new Object())).isSameAs(ProductionComponentMonitor.noOp());
+  }
+
   private void setUpNormalSingleMonitor() {
     when(mockProductionComponentMonitorFactory.create(any(Object.class)))
         .thenReturn(mockProductionComponentMonitor);
@@ -16,14 +16,21 @@
 
 package dagger.spi;
 
+import static com.google.common.truth.Truth.assertThat;
+import static com.google.common.util.concurrent.Uninterruptibles.sleepUninterruptibly;
 import static com.google.testing.compile.CompilationSubject.assertThat;
 import static com.google.testing.compile.Compiler.javac;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.stream.Collectors.toList;
+import static javax.tools.Diagnostic.Kind.WARNING;
 
 import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableList;
 import com.google.testing.compile.Compilation;
 import com.google.testing.compile.JavaFileObjects;
 import dagger.internal.codegen.ComponentProcessor;
+import dagger.model.BindingGraph;
+import java.util.Locale;
 import javax.tools.JavaFileObject;
 import org.junit.Test;
 import org.junit.runner.RunWith;
@@ -71,6 +78,90 @@ public final class SpiPluginTest {
         .onLineContaining("interface TestComponent");
   }
 
+  @Test
+  public void parallelPlugins() {
+    JavaFileObject foo =
+        JavaFileObjects.forSourceLines(
+            "test.Foo",
+            "package test;",
+            "",
+            "import javax.inject.Inject;",
+            "",
+            "class Foo {",
+            "  @Inject Foo(Missing missing) {}",
+            "}");
+    JavaFileObject missing =
+        JavaFileObjects.forSourceLines(
+            "test.Missing",
+            "package test;",
+            "",
+            "interface Missing {}");
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {",
+            "  Foo foo();",
+            "}");
+
+    Compilation compilation =
+        javac()
+            .withProcessors(new ComponentProcessor())
+            .withOptions(
+                "-Aerror_on_binding=test.Foo", "-Adagger.experimentalParallelPlugins=enabled")
+            .compile(component, foo, missing);
+    assertThat(compilation).failed();
+    assertThat(compilation)
+        .hadErrorContaining("test.Missing cannot be provided without an @Provides-annotated method")
+        .inFile(component)
+        .onLineContaining("interface TestComponent");
+    // Validation errors stop SPI plugins from running, so only the validation error is reported.
+    assertThat(compilation).hadErrorCount(1);
+  }
+
+  @Test
+  public void parallelPlugins_reportInPluginOrder() {
+    JavaFileObject component =
+        JavaFileObjects.forSourceLines(
+            "test.TestComponent",
+            "package test;",
+            "",
+            "import dagger.Component;",
+            "",
+            "@Component",
+            "interface TestComponent {}");
+
+    for (int run = 0; run < 3; run++) {
+      Compilation compilation =
+          javac()
+              .withProcessors(
+                  ComponentProcessor.forTesting(
+                      new WarningPlugin("Slow", true, 100),
+                      new WarningPlugin("Sequential", false, 0),
+                      new WarningPlugin("Fast", true, 0)))
+              .withOptions("-Adagger.experimentalParallelPlugins=enabled")
+              .compile(component);
+      assertThat(compilation).succeeded();
+      assertThat(
+              compilation.warnings().stream()
+                  .map(warning -> warning.getMessage(Locale.getDefault()))
+                  .filter(message -> message.startsWith("["))
+                  .collect(toList()))
+          .containsExactly(
+              "[Slow] first",
+              "[Slow] second",
+              "[Sequential] first",
+              "[Sequential] second",
+              "[Fast] first",
+              "[Fast] second")
+          .inOrder();
+    }
+  }
+
   @Test
   public void dependencyTraceAtDependencyRequest() {
     JavaFileObject foo =
@@ -471,4 +562,37 @@ public final class SpiPluginTest {
   private static String message(String... lines) {
     return Joiner.on("\n  ").join(lines);
   }
+
+  /**
+   * Reports two warnings on the root component after an optional delay, which lets a plugin that
+   * runs concurrently finish after the plugins that follow it.
+   */
+  private static final class WarningPlugin implements BindingGraphPlugin {
+    private final String name;
+    private final boolean modelFree;
+    private final long delayMillis;
+
+    WarningPlugin(String name, boolean modelFree, long delayMillis) {
+      this.name = name;
+      this.modelFree = modelFree;
+      this.delayMillis = delayMillis;
+    }
+
+    @Override
+    public void visitGraph(BindingGraph bindingGraph, DiagnosticReporter diagnosticReporter) {
+      sleepUninterruptibly(delayMillis, MILLISECONDS);
+      diagnosticReporter.reportComponent(WARNING, bindingGraph.rootComponentNode(), "first");
+      diagnosticReporter.reportComponent(WARNING, bindingGraph.rootComponentNode(), "second");
+    }
+
+    @Override
+    public boolean isModelFree() {
+      return modelFree;
+    }
+
+    @Override
+    public String pluginName() {
+      return name;
+    }
+  }
 }
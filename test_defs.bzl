@@ -23,6 +23,11 @@ BUILD_VARIANTS = {
         "-Adagger.fastInit=enabled",
         "-Adagger.experimentalAheadOfTimeSubcomponents=enabled",
     ],
+    "MonitorFreeScoping": ["-Adagger.experimentalMonitorFreeScoping=enabled"],
+    "FastInitAndMonitorFreeScoping": [
+        "-Adagger.fastInit=enabled",
+        "-Adagger.experimentalMonitorFreeScoping=enabled",
+    ],
 }
 
 # TODO(ronshapiro): convert this to use bazel_common